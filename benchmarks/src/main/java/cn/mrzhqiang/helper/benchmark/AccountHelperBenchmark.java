@@ -0,0 +1,123 @@
+package cn.mrzhqiang.helper.benchmark;
+
+import cn.mrzhqiang.helper.AccountHelper;
+import cn.mrzhqiang.helper.PasswordPolicy;
+import cn.mrzhqiang.helper.UsernameSequence;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * {@link AccountHelper}的密码与用户名生成。
+ *
+ * @author mrzhqiang
+ */
+@BenchmarkMode({ Mode.Throughput, Mode.SampleTime })
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AccountHelperBenchmark {
+
+  private static final int PASSWORD_LENGTH = 12;
+  /** 批量生成的密码数量 */
+  private static final int BATCH = 1000;
+  /** 一次性生成的用户名数量 */
+  private static final int USERNAMES = 10000;
+  /** 固定宽度用户名的吞吐量测试规模 */
+  private static final int TEN_MILLION = 10000000;
+
+  /** 每个线程独享的缓冲区。 */
+  @State(Scope.Thread)
+  public static class Buffers {
+    final char[] password = new char[PASSWORD_LENGTH];
+    final char[][] batch = new char[BATCH][PASSWORD_LENGTH];
+    char[] username;
+
+    @Setup public void setUp(Sequences sequences) {
+      username = new char[sequences.fixedWidth.maxLength()];
+    }
+  }
+
+  /** 共享的用户名序列与密码策略，都是不可变的。 */
+  @State(Scope.Benchmark)
+  public static class Sequences {
+    final UsernameSequence lazy = AccountHelper.lazyUsernames("user", 6, 0, USERNAMES);
+    final UsernameSequence fixedWidth =
+        AccountHelper.fixedWidthUsernames("user", 12, 0, TEN_MILLION);
+    final PasswordPolicy policy = new PasswordPolicy.Builder().length(PASSWORD_LENGTH)
+        .requireUpperCase()
+        .requireLowerCase()
+        .requireDigit()
+        .build();
+  }
+
+  @Benchmark public String createPassword() {
+    return AccountHelper.createPassword(PASSWORD_LENGTH);
+  }
+
+  @Benchmark public char[] fillPassword(Buffers buffers) {
+    AccountHelper.fillPassword(buffers.password, 0, PASSWORD_LENGTH);
+    return buffers.password;
+  }
+
+  @Benchmark @OperationsPerInvocation(BATCH) public char[][] fillPasswords(Buffers buffers) {
+    AccountHelper.fillPasswords(buffers.batch);
+    return buffers.batch;
+  }
+
+  @Benchmark public String createPolicyPassword(Sequences sequences) {
+    return AccountHelper.createPassword(sequences.policy);
+  }
+
+  /** 对照组：用原来的方法反复生成，直到包含数字、大写和小写字母。 */
+  @Benchmark public String createPasswordUntilValid() {
+    while (true) {
+      String password = AccountHelper.createPassword(PASSWORD_LENGTH);
+      boolean upper = false, lower = false, digit = false;
+      for (int i = 0; i < password.length(); i++) {
+        char c = password.charAt(i);
+        upper |= Character.isUpperCase(c);
+        lower |= Character.isLowerCase(c);
+        digit |= Character.isDigit(c);
+      }
+      if (upper && lower && digit) {
+        return password;
+      }
+    }
+  }
+
+  @Benchmark @OperationsPerInvocation(USERNAMES) public String[] autoUsernames() {
+    return AccountHelper.autoUsernames("user", 6, 0, USERNAMES);
+  }
+
+  @Benchmark @OperationsPerInvocation(USERNAMES) public void lazyUsernames(Sequences sequences,
+      Buffers buffers, Blackhole blackhole) {
+    UsernameSequence sequence = sequences.lazy;
+    char[] buffer = buffers.username;
+    for (long i = 0; i < USERNAMES; i++) {
+      blackhole.consume(sequence.write(i, buffer, 0));
+    }
+  }
+
+  /** 每次调用写出全部10⁷个固定宽度的用户名，得分按单个用户名计算。 */
+  @Benchmark @BenchmarkMode(Mode.SingleShotTime) @OutputTimeUnit(TimeUnit.NANOSECONDS)
+  @OperationsPerInvocation(TEN_MILLION)
+  public void fixedWidthUsernames(Sequences sequences, Buffers buffers, Blackhole blackhole) {
+    UsernameSequence sequence = sequences.fixedWidth;
+    char[] buffer = buffers.username;
+    for (long i = 0; i < TEN_MILLION; i++) {
+      blackhole.consume(sequence.write(i, buffer, 0));
+    }
+  }
+}
@@ -0,0 +1,99 @@
+package cn.mrzhqiang.helper.benchmark;
+
+import cn.mrzhqiang.helper.AccountHelper;
+import cn.mrzhqiang.helper.BloomFilter;
+import cn.mrzhqiang.helper.UsernameSequence;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * {@link BloomFilter}的查询吞吐量与误判率。
+ * <p>
+ * 过滤器预先写入{@code existing}个已有用户名，{@link #mightContainMiss(Counters)}查询的用户名都不存在，
+ * 因此{@code falsePositives / lookups}就是实测的误判率。
+ *
+ * @author mrzhqiang
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class BloomFilterBenchmark {
+
+  @Param({ "1000000" })
+  public long existing;
+
+  @Param({ "0.01", "0.001" })
+  public double falsePositiveRate;
+
+  private BloomFilter filter;
+  /** 已有用户名 */
+  private UsernameSequence hits;
+  /** 不存在的用户名，位于已有用户名之后 */
+  private UsernameSequence misses;
+
+  @Setup public void setUp() {
+    filter = new BloomFilter(existing, falsePositiveRate);
+    hits = AccountHelper.fixedWidthUsernames("user", 12, 0, existing);
+    misses = AccountHelper.fixedWidthUsernames("user", 12, existing, existing);
+    char[] buffer = new char[hits.maxLength()];
+    for (long i = 0; i < existing; i++) {
+      filter.put(buffer, 0, hits.write(i, buffer, 0));
+    }
+  }
+
+  /** 每个线程独享的游标与缓冲区。 */
+  @State(Scope.Thread)
+  public static class Cursor {
+    final char[] buffer = new char[12];
+    long position;
+
+    long next(long size) {
+      if (position == size) {
+        position = 0;
+      }
+      return position++;
+    }
+  }
+
+  /** 误判计数，每次迭代清零。 */
+  @State(Scope.Thread) @AuxCounters(AuxCounters.Type.EVENTS)
+  public static class Counters {
+    public long lookups;
+    public long falsePositives;
+
+    @Setup(Level.Iteration) public void reset() {
+      lookups = 0;
+      falsePositives = 0;
+    }
+  }
+
+  @Benchmark public boolean mightContainHit(Cursor cursor) {
+    int length = hits.write(cursor.next(existing), cursor.buffer, 0);
+    return filter.mightContain(cursor.buffer, 0, length);
+  }
+
+  @Benchmark public boolean mightContainMiss(Cursor cursor, Counters counters) {
+    int length = misses.write(cursor.next(existing), cursor.buffer, 0);
+    boolean result = filter.mightContain(cursor.buffer, 0, length);
+    counters.lookups++;
+    if (result) {
+      counters.falsePositives++;
+    }
+    return result;
+  }
+}
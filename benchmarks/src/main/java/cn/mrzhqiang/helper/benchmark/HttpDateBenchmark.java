@@ -0,0 +1,66 @@
+package cn.mrzhqiang.helper.benchmark;
+
+import cn.mrzhqiang.helper.HttpDate;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * {@link HttpDate}的解析与格式化，包括直接解析字节的{@link HttpDate#parseMillis(byte[], int, int)}。
+ *
+ * @author mrzhqiang
+ */
+@BenchmarkMode({ Mode.Throughput, Mode.SampleTime })
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class HttpDateBenchmark {
+
+  /** 标准格式走快速路径，其余格式需要逐个尝试兼容格式。 */
+  @Param({
+      "Thu, 01 Jan 1970 00:00:00 GMT",
+      "Sunday, 06-Nov-94 08:49:37 GMT",
+      "Sun Nov  6 08:49:37 1994",
+  })
+  public String value;
+
+  private final Date date = new Date(784111777000L);
+  private byte[] bytes;
+  private ByteBuffer direct;
+
+  @Setup public void setUp() {
+    bytes = value.getBytes(StandardCharsets.US_ASCII);
+    direct = ByteBuffer.allocateDirect(bytes.length);
+    direct.put(bytes).flip();
+  }
+
+  @Benchmark public Date parse() {
+    return HttpDate.parse(value);
+  }
+
+  @Benchmark public long parseMillisBytes() {
+    return HttpDate.parseMillis(bytes, 0, bytes.length);
+  }
+
+  @Benchmark public long parseMillisDirectBuffer() {
+    return HttpDate.parseMillis(direct);
+  }
+
+  @Benchmark public String format() {
+    return HttpDate.format(date);
+  }
+}
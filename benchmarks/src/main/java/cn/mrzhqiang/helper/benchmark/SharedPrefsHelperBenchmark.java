@@ -0,0 +1,119 @@
+package cn.mrzhqiang.helper.benchmark;
+
+import android.content.Context;
+import android.content.SharedPreferences;
+import cn.mrzhqiang.helper.SharedPrefsHelper;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * {@link SharedPrefsHelper}的对象编码与解码。
+ * <p>
+ * 共享首选项由内存实现代替，测量的只是序列化与 Base64 的开销。
+ * 明文形式的序列化字节无法通过字符串还原，{@link SharedPrefsHelper#take(String, Class)}会失败，
+ * 所以明文形式只测量写入。
+ *
+ * @author mrzhqiang
+ */
+@BenchmarkMode({ Mode.Throughput, Mode.SampleTime })
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SharedPrefsHelperBenchmark {
+
+  /** 序列化对象中的元素数量。 */
+  @Param({ "10", "1000" })
+  public int size;
+
+  private SharedPrefsHelper helper;
+  private ArrayList<String> value;
+
+  @Setup public void setUp() throws IOException {
+    helper = new SharedPrefsHelper(new MemoryContext(), "benchmark");
+    value = new ArrayList<>(size);
+    for (int i = 0; i < size; i++) {
+      value.add("value" + i);
+    }
+    if (!helper.putEncode("encoded", value)) {
+      throw new IOException("Prepare failed.");
+    }
+  }
+
+  @Benchmark public boolean putEncode() throws IOException {
+    return helper.putEncode("encode", value);
+  }
+
+  @Benchmark public Object takeDecode() throws IOException {
+    return helper.takeDecode("encoded", ArrayList.class);
+  }
+
+  @Benchmark public boolean put() throws IOException {
+    return helper.put("put", value);
+  }
+
+  /** 使用内存共享首选项的上下文。 */
+  private static final class MemoryContext extends Context {
+    private final Map<String, SharedPreferences> preferences = new ConcurrentHashMap<>();
+
+    @Override public SharedPreferences getSharedPreferences(String name, int mode) {
+      SharedPreferences sharedPreferences = preferences.get(name);
+      if (sharedPreferences == null) {
+        sharedPreferences = new MemorySharedPreferences();
+        preferences.put(name, sharedPreferences);
+      }
+      return sharedPreferences;
+    }
+  }
+
+  /** 线程安全的内存共享首选项。 */
+  private static final class MemorySharedPreferences implements SharedPreferences {
+    private final Map<String, String> values = new ConcurrentHashMap<>();
+
+    @Override public String getString(String key, String defValue) {
+      String value = values.get(key);
+      return value != null ? value : defValue;
+    }
+
+    @Override public Editor edit() {
+      return new Editor() {
+        private final Map<String, String> puts = new HashMap<>();
+        private final ArrayList<String> removes = new ArrayList<>();
+
+        @Override public Editor putString(String key, String value) {
+          puts.put(key, value);
+          return this;
+        }
+
+        @Override public Editor remove(String key) {
+          removes.add(key);
+          return this;
+        }
+
+        @Override public boolean commit() {
+          for (String key : removes) {
+            values.remove(key);
+          }
+          values.putAll(puts);
+          return true;
+        }
+      };
+    }
+  }
+}
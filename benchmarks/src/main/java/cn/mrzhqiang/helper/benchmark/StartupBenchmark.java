@@ -0,0 +1,65 @@
+package cn.mrzhqiang.helper.benchmark;
+
+import cn.mrzhqiang.helper.HttpDate;
+import cn.mrzhqiang.helper.TimeHelper;
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * 各个公开方法的首次调用耗时。
+ * <p>
+ * 每个方法都在全新的 JVM 中只调用一次，测得的时间包括类加载、静态初始化以及格式化实例的创建。
+ *
+ * @author mrzhqiang
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 0)
+@Measurement(iterations = 1)
+@Fork(20)
+@State(Scope.Benchmark)
+public class StartupBenchmark {
+
+  private final Date date = new Date(System.currentTimeMillis() - TimeUnit.DAYS.toMillis(400));
+
+  @Benchmark public String timeHelperShowTime() {
+    return TimeHelper.showTime(date);
+  }
+
+  @Benchmark public String timeHelperLastTime() {
+    return TimeHelper.lastTime(date.getTime());
+  }
+
+  @Benchmark public boolean timeHelperThisYear() {
+    return TimeHelper.thisYear(date);
+  }
+
+  @Benchmark public boolean timeHelperToday() {
+    return TimeHelper.today(date);
+  }
+
+  @Benchmark public boolean timeHelperSameDay() {
+    return TimeHelper.sameDay(date, date);
+  }
+
+  @Benchmark public Date httpDateParse() {
+    return HttpDate.parse("Thu, 01 Jan 1970 00:00:00 GMT");
+  }
+
+  @Benchmark public Date httpDateParseBrowserCompatible() {
+    return HttpDate.parse("Sunday, 06-Nov-94 08:49:37 GMT");
+  }
+
+  @Benchmark public String httpDateFormat() {
+    return HttpDate.format(date);
+  }
+}
@@ -0,0 +1,50 @@
+package cn.mrzhqiang.helper.benchmark;
+
+import cn.mrzhqiang.helper.TimeHelper;
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * {@link TimeHelper}的时间显示。
+ *
+ * @author mrzhqiang
+ */
+@BenchmarkMode({ Mode.Throughput, Mode.SampleTime })
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class TimeHelperBenchmark {
+
+  /** 距离现在的分钟数，覆盖“刚刚”、分钟、小时、天、跨年等分支。 */
+  @Param({ "0", "30", "300", "4320", "525600" })
+  public long minutesAgo;
+
+  private Date date;
+  private long time;
+
+  @Setup public void setUp() {
+    time = System.currentTimeMillis() - TimeUnit.MINUTES.toMillis(minutesAgo);
+    date = new Date(time);
+  }
+
+  @Benchmark public String showTime() {
+    return TimeHelper.showTime(date);
+  }
+
+  @Benchmark public String lastTime() {
+    return TimeHelper.lastTime(time);
+  }
+}
@@ -0,0 +1,8 @@
+package android.content;
+
+/** JVM 上的替身，只保留 library 用到的成员。 */
+public abstract class Context {
+  public static final int MODE_PRIVATE = 0x0000;
+
+  public abstract SharedPreferences getSharedPreferences(String name, int mode);
+}
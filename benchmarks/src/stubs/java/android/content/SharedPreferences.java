@@ -0,0 +1,18 @@
+package android.content;
+
+/** JVM 上的替身，只保留 library 用到的成员。 */
+public interface SharedPreferences {
+
+  String getString(String key, String defValue);
+
+  Editor edit();
+
+  interface Editor {
+
+    Editor putString(String key, String value);
+
+    Editor remove(String key);
+
+    boolean commit();
+  }
+}
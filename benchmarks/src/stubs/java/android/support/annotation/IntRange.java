@@ -0,0 +1,12 @@
+package android.support.annotation;
+
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+
+/** JVM 上的替身，仅用于编译 library 源码。 */
+@Retention(RetentionPolicy.CLASS)
+public @interface IntRange {
+  long from() default Long.MIN_VALUE;
+
+  long to() default Long.MAX_VALUE;
+}
@@ -0,0 +1,9 @@
+package android.support.annotation;
+
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+
+/** JVM 上的替身，仅用于编译 library 源码。 */
+@Retention(RetentionPolicy.CLASS)
+public @interface Nullable {
+}
@@ -0,0 +1,27 @@
+package android.util;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * JVM 上的替身，基于{@link java.util.Base64}实现。
+ * <p>
+ * 与 Android 的{@code DEFAULT}标志一致：每76个字符换行，并且以换行结尾。
+ */
+public final class Base64 {
+  public static final int DEFAULT = 0;
+
+  public static byte[] encode(byte[] input, int flags) {
+    byte[] encoded = java.util.Base64.getMimeEncoder(76, new byte[] { '\n' }).encode(input);
+    byte[] output = new byte[encoded.length + 1];
+    System.arraycopy(encoded, 0, output, 0, encoded.length);
+    output[encoded.length] = '\n';
+    return output;
+  }
+
+  public static byte[] decode(String str, int flags) {
+    return java.util.Base64.getMimeDecoder().decode(str.getBytes(StandardCharsets.US_ASCII));
+  }
+
+  private Base64() {
+  }
+}
@@ -0,0 +1,142 @@
+package cn.mrzhqiang.helper;
+
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+import android.graphics.Color;
+import android.support.test.runner.AndroidJUnit4;
+import android.util.Log;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import static org.junit.Assert.*;
+
+/**
+ * 比较字形图集绘制的头像与直接绘制文字的头像，确保两者在视觉上一致，并记录两者的绘制耗时。
+ */
+@RunWith(AndroidJUnit4.class)
+public class NameHelperTest {
+  private static final String TAG = "NameHelperTest";
+  private static final String LETTERS = "ABCDEFGHIJKLMNOPQRSTUVWXYZ0123456789";
+  /** 常见的头像尺寸，包括 xxhdpi、xxxhdpi 下40dp、48dp的头像，最大等于使用图集的上限。 */
+  private static final int[] SIZES = { 24, 48, 72, 96, 128, 144, 160, 192 };
+  /** 单个通道的差异超过这个值，视为不同的像素。 */
+  private static final int CHANNEL_TOLERANCE = 16;
+  /** 不同的像素最多占的比例，图集不缩放，只有混合时的舍入误差。 */
+  private static final double MAX_DIFFERENT_PIXELS = 0.005;
+  /** 测量耗时时每种尺寸绘制的轮数，每轮绘制所有字形。 */
+  private static final int ROUNDS = 20;
+
+  @Test
+  public void glyphAtlas_matchesText() throws Exception {
+    for (int size : SIZES) {
+      // 每种尺寸单独创建图集，避免超出上限后比较的是两次直接绘制的文字
+      NameHelper.clearGlyphAtlases();
+      double worst = 0;
+      for (int i = 0; i < LETTERS.length(); i++) {
+        String name = LETTERS.substring(i, i + 1);
+        Bitmap actual = NameHelper.bitmapOf(name, size);
+
+        Bitmap expected = Bitmap.createBitmap(size, size, Bitmap.Config.ARGB_8888);
+        int color = actual.getPixel(0, 0);
+        NameHelper.drawTextTile(new Canvas(expected), name, color, size, size);
+
+        assertTrue(NameHelper.hasGlyphAtlas(size));
+        double different = differentPixels(expected, actual);
+        assertTrue(name + " at " + size + "px differs by " + different,
+            different <= MAX_DIFFERENT_PIXELS);
+        worst = Math.max(worst, different);
+        actual.recycle();
+        expected.recycle();
+      }
+      Log.i(TAG, String.format("parity %dpx: worst different pixels %.4f", size, worst));
+    }
+  }
+
+  @Test
+  public void otherLetters_fallBackToText() throws Exception {
+    assertSameAsText("张三", "张", 48);
+  }
+
+  @Test
+  public void largeTiles_fallBackToText() throws Exception {
+    NameHelper.clearGlyphAtlases();
+    assertSameAsText("A", "A", 256);
+    assertFalse(NameHelper.hasGlyphAtlas(256));
+  }
+
+  @Test
+  public void atlasBudget_fallsBackToTextWithoutEviction() throws Exception {
+    NameHelper.clearGlyphAtlases();
+    // 192px 和 144px 的图集一共约1.98MB，再加上 160px 就超出了2MB的上限
+    NameHelper.bitmapOf("A", 192).recycle();
+    NameHelper.bitmapOf("A", 144).recycle();
+    assertSameAsText("A", "A", 160);
+    assertTrue(NameHelper.hasGlyphAtlas(192));
+    assertTrue(NameHelper.hasGlyphAtlas(144));
+    assertFalse(NameHelper.hasGlyphAtlas(160));
+  }
+
+  /** 只记录耗时，不做断言：设备和模拟器上的计时波动太大，不适合作为测试结果。 */
+  @Test
+  public void glyphAtlas_renderTime() throws Exception {
+    for (int size : SIZES) {
+      NameHelper.clearGlyphAtlases();
+      Bitmap bitmap = Bitmap.createBitmap(size, size, Bitmap.Config.ARGB_8888);
+      Canvas canvas = new Canvas(bitmap);
+      // 先各绘制一轮，创建图集并预热字体，第一轮包括创建图集的一次性开销
+      long build = renderNanos(canvas, size, true, 1);
+      renderNanos(canvas, size, false, 1);
+      long atlas = renderNanos(canvas, size, true, ROUNDS);
+      long text = renderNanos(canvas, size, false, ROUNDS);
+      int tiles = ROUNDS * LETTERS.length();
+      Log.i(TAG, String.format("render %dpx: first round %d us, atlas %d ns/tile, "
+              + "text %d ns/tile, %.1fx", size, build / 1000, atlas / tiles, text / tiles,
+          (double) text / atlas));
+      bitmap.recycle();
+    }
+  }
+
+  /** 按头像生成时的方式绘制所有字形，返回耗时。 */
+  private static long renderNanos(Canvas canvas, int size, boolean atlas, int rounds) {
+    long start = System.nanoTime();
+    for (int round = 0; round < rounds; round++) {
+      for (int i = 0; i < LETTERS.length(); i++) {
+        String name = LETTERS.substring(i, i + 1);
+        if (atlas) {
+          NameHelper.drawTile(canvas, name, 0xFF607d8b, size, size);
+        } else {
+          NameHelper.drawTextTile(canvas, name, 0xFF607d8b, size, size);
+        }
+      }
+    }
+    return System.nanoTime() - start;
+  }
+
+  private static void assertSameAsText(String name, String letter, int size) {
+    Bitmap actual = NameHelper.bitmapOf(name, size);
+    Bitmap expected = Bitmap.createBitmap(size, size, Bitmap.Config.ARGB_8888);
+    NameHelper.drawTextTile(new Canvas(expected), letter, actual.getPixel(0, 0), size, size);
+    assertTrue(expected.sameAs(actual));
+    actual.recycle();
+    expected.recycle();
+  }
+
+  private static double differentPixels(Bitmap expected, Bitmap actual) {
+    int width = expected.getWidth();
+    int height = expected.getHeight();
+    int[] a = new int[width * height];
+    int[] b = new int[width * height];
+    expected.getPixels(a, 0, width, 0, 0, width, height);
+    actual.getPixels(b, 0, width, 0, 0, width, height);
+    int different = 0;
+    for (int i = 0; i < a.length; i++) {
+      if (Math.abs(Color.red(a[i]) - Color.red(b[i])) > CHANNEL_TOLERANCE
+          || Math.abs(Color.green(a[i]) - Color.green(b[i])) > CHANNEL_TOLERANCE
+          || Math.abs(Color.blue(a[i]) - Color.blue(b[i])) > CHANNEL_TOLERANCE) {
+        different++;
+      }
+    }
+    return (double) different / a.length;
+  }
+}
@@ -21,8 +21,16 @@ public final class AccountHelper {
   /** 26个大小写字母，以及0-9数字的拼接 */
   private static final String CHARS =
       "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789";
-  /** 生成随机数的实例 */
-  private static final SecureRandom RANDOM = new SecureRandom();
+  /** 字符表的数组形式，批量生成时直接按下标取值 */
+  private static final char[] ALPHABET = CHARS.toCharArray();
+  /** 生成不冲突的密码时，最多尝试的次数 */
+  private static final int MAX_UNIQUE_ATTEMPTS = 100;
+  /** 每个线程独享的批量随机源，避免多个线程竞争同一个{@link SecureRandom}实例 */
+  private static final ThreadLocal<BulkRandom> BULK_RANDOM = new ThreadLocal<BulkRandom>() {
+    @Override protected BulkRandom initialValue() {
+      return new BulkRandom();
+    }
+  };
   /** 正则表达式，判断字符串是否为大小写英文字母——至少有一个 */
   private static final Pattern PREFIX_PATTERN = Pattern.compile("[A-Za-z]+");
 
@@ -33,11 +41,108 @@ public final class AccountHelper {
    * @return 指定长度的随机密码
    */
   @CheckResult @AnyThread public static String createPassword(@IntRange(from = 1) int length) {
-    StringBuilder builder = new StringBuilder(length);
-    for (int i = 0; i < length; i++) {
-      builder.append(CHARS.charAt(RANDOM.nextInt(CHARS.length())));
+    char[] password = new char[length];
+    fillPassword(password, 0, length);
+    return new String(password);
+  }
+
+  /**
+   * 按照密码策略创建随机密码。
+   * <p>
+   * 先为每个必须出现的字符类型放置一个字符，其余位置从字符池中随机选取，最后整体打乱顺序，
+   * 一次生成即可满足策略，不需要反复重试。
+   *
+   * @param policy 密码策略
+   * @return 满足策略的随机密码
+   */
+  @CheckResult @AnyThread public static String createPassword(@NonNull PasswordPolicy policy) {
+    char[] password = new char[policy.length()];
+    fillPassword(password, 0, policy);
+    return new String(password);
+  }
+
+  /**
+   * 按照密码策略创建不与已有值冲突的随机密码，通常用来生成随机的账户标识。
+   * <p>
+   * 可能冲突的结果会被直接丢弃并重新生成，不需要查询数据库；生成的结果会写入过滤器，
+   * 因此同一批次内也不会重复。注意：过滤器的写入不是线程安全的。
+   *
+   * @param policy 密码策略
+   * @param existing 已有值的布隆过滤器
+   * @return 一定不在过滤器中的随机密码
+   * @throws IllegalStateException 多次重新生成仍然冲突，说明过滤器已经饱和或策略的取值空间太小
+   */
+  @CheckResult @WorkerThread public static String createPassword(@NonNull PasswordPolicy policy,
+      @NonNull BloomFilter existing) {
+    char[] password = new char[policy.length()];
+    for (int i = 0; i < MAX_UNIQUE_ATTEMPTS; i++) {
+      fillPassword(password, 0, policy);
+      if (!existing.mightContain(password, 0, password.length)) {
+        existing.put(password, 0, password.length);
+        return new String(password);
+      }
     }
-    return builder.toString();
+    throw new IllegalStateException("Too many collisions, bloom filter may be saturated.");
+  }
+
+  /**
+   * 按照密码策略将随机密码写入调用者提供的缓冲区。
+   *
+   * @param buffer 缓冲区
+   * @param offset 开始写入的位置，写入的字符数量为{@link PasswordPolicy#length()}
+   * @param policy 密码策略
+   */
+  @AnyThread public static void fillPassword(@NonNull char[] buffer, @IntRange(from = 0) int offset,
+      @NonNull PasswordPolicy policy) {
+    int length = policy.length();
+    if (offset < 0 || offset > buffer.length - length) {
+      throw new IllegalArgumentException("Offset illegal argument.");
+    }
+    BulkRandom random = BULK_RANDOM.get();
+    char[][] required = policy.required;
+    for (int i = 0; i < required.length; i++) {
+      buffer[offset + i] = random.nextChar(required[i]);
+    }
+    char[] pool = policy.pool;
+    for (int i = offset + required.length, end = offset + length; i < end; i++) {
+      buffer[i] = random.nextChar(pool);
+    }
+    // Fisher-Yates 洗牌，让必需字符出现在任意位置
+    for (int i = length - 1; i > 0; i--) {
+      int j = random.nextInt(i + 1);
+      char temp = buffer[offset + i];
+      buffer[offset + i] = buffer[offset + j];
+      buffer[offset + j] = temp;
+    }
+  }
+
+  /**
+   * 批量创建随机密码，每个缓冲区都将被随机字符填满。
+   * <p>
+   * 适合一次生成大量密码的场景，调用者可以复用缓冲区，避免创建大量临时字符串。
+   *
+   * @param buffers 调用者提供的缓冲区数组，每个缓冲区的长度即为对应密码的长度
+   */
+  @WorkerThread public static void fillPasswords(@NonNull char[][] buffers) {
+    BulkRandom random = BULK_RANDOM.get();
+    for (char[] buffer : buffers) {
+      random.fill(buffer, 0, buffer.length);
+    }
+  }
+
+  /**
+   * 将随机密码写入调用者提供的缓冲区。
+   *
+   * @param buffer 缓冲区，写入的字符来自{@link #CHARS}
+   * @param offset 开始写入的位置
+   * @param length 写入的字符数量
+   */
+  @AnyThread public static void fillPassword(@NonNull char[] buffer, @IntRange(from = 0) int offset,
+      @IntRange(from = 0) int length) {
+    if (offset < 0 || length < 0 || offset > buffer.length - length) {
+      throw new IllegalArgumentException("Offset or length illegal argument.");
+    }
+    BULK_RANDOM.get().fill(buffer, offset, length);
   }
 
   /**
@@ -65,20 +170,122 @@ public final class AccountHelper {
   @CheckResult @WorkerThread public static String[] autoUsernames(@NonNull String prefix,
       @IntRange(from = 0) int minLength, @IntRange(from = 0) int startIndex,
       @IntRange(from = 2) int count) {
+    String[] usernames = new String[count];
+    prefix = paddedPrefix(prefix, minLength);
+    for (int i = 0; i < count; i++) {
+      usernames[i] = prefix + (startIndex + i);
+    }
+    return usernames;
+  }
+
+  /**
+   * 惰性生成用户名序列。
+   * <p>
+   * 与{@link #autoUsernames(String, int, int, int)}的规则一致，但不会预先分配数组，
+   * 适合生成海量用户名并流式写入文件或数据库。
+   *
+   * @param prefix 用户名前缀
+   * @param minLength 用户名前缀的最小长度，不足时在前缀后面补0
+   * @param startIndex 起始索引
+   * @param count 需要生成的用户名数量
+   * @return 用户名序列
+   */
+  @CheckResult @AnyThread public static UsernameSequence lazyUsernames(@NonNull String prefix,
+      @IntRange(from = 0) int minLength, @IntRange(from = 0) long startIndex,
+      @IntRange(from = 0) long count) {
+    if (startIndex < 0 || count < 0 || startIndex > Long.MAX_VALUE - count) {
+      throw new IllegalArgumentException("Start index or count illegal argument.");
+    }
+    return new UsernameSequence(paddedPrefix(prefix, minLength).toCharArray(), 0, startIndex,
+        count);
+  }
+
+  /**
+   * 惰性生成固定宽度的用户名序列。
+   * <p>
+   * 所有用户名的长度都等于{@code width}，前缀和数字之间补0，比如宽度为8时：{@code abc00001}、
+   * {@code abc12345}，因此用户名的字典序与数字顺序一致。
+   *
+   * @param prefix 用户名前缀
+   * @param width 用户名的总长度，必须能容纳前缀和最大的索引
+   * @param startIndex 起始索引
+   * @param count 需要生成的用户名数量
+   * @return 用户名序列
+   */
+  @CheckResult @AnyThread public static UsernameSequence fixedWidthUsernames(
+      @NonNull String prefix, @IntRange(from = 1) int width, @IntRange(from = 0) long startIndex,
+      @IntRange(from = 0) long count) {
+    if (width < 1) {
+      throw new IllegalArgumentException("Width illegal argument.");
+    }
+    if (startIndex < 0 || count < 0 || startIndex > Long.MAX_VALUE - count) {
+      throw new IllegalArgumentException("Start index or count illegal argument.");
+    }
+    return new UsernameSequence(paddedPrefix(prefix, 0).toCharArray(), width, startIndex, count);
+  }
+
+  /** 校验前缀，如果前缀长度不足最小长度，将从中间补0，缺多少补多少。 */
+  private static String paddedPrefix(String prefix, int minLength) {
     if (!PREFIX_PATTERN.matcher(prefix).matches()) {
       throw new IllegalArgumentException("Prefix illegal argument.");
     }
-    String[] usernames = new String[count];
-    // 如果前缀长度不足6位，将从中间补0，缺多少补多少
     StringBuilder builder = new StringBuilder(prefix);
     for (int i = 0; i < minLength - prefix.length(); i++) {
       builder.append("0");
     }
-    prefix = builder.toString();
-    for (int i = 0; i < count; i++) {
-      usernames[i] = prefix + (startIndex + i);
+    return builder.toString();
+  }
+
+  /**
+   * 批量随机源。
+   * <p>
+   * 一次性从{@link SecureRandom}取得一整块随机字节，再通过拒绝采样映射到指定范围，
+   * 以减少调用{@link SecureRandom}的次数，同时避免取模偏差。实例不是线程安全的，只能通过{@link #BULK_RANDOM}使用。
+   */
+  private static final class BulkRandom {
+    /** 随机字节缓冲区的大小 */
+    private static final int BUFFER_SIZE = 4096;
+
+    private final SecureRandom random = new SecureRandom();
+    private final byte[] bytes = new byte[BUFFER_SIZE];
+    private int position = BUFFER_SIZE;
+
+    /** 返回一个随机字节，取值范围是0-255。 */
+    private int nextByte() {
+      if (position == BUFFER_SIZE) {
+        random.nextBytes(bytes);
+        position = 0;
+      }
+      return bytes[position++] & 0xFF;
+    }
+
+    /** 返回[0, bound)之间均匀分布的随机数。 */
+    int nextInt(int bound) {
+      // 掩码为不小于 bound 的2的幂减1，超出 bound 的值直接丢弃，拒绝率不会超过一半
+      int mask = -1 >>> Integer.numberOfLeadingZeros(Math.max(bound - 1, 1));
+      while (true) {
+        int value = nextByte();
+        if (mask > 0xFF) {
+          value = value << 24 | nextByte() << 16 | nextByte() << 8 | nextByte();
+        }
+        value &= mask;
+        if (value < bound) {
+          return value;
+        }
+      }
+    }
+
+    /** 从字符数组中随机取一个字符。 */
+    char nextChar(char[] chars) {
+      return chars[nextInt(chars.length)];
+    }
+
+    /** 用随机字符填充缓冲区的指定区间。 */
+    void fill(char[] buffer, int offset, int length) {
+      for (int i = offset, end = offset + length; i < end; i++) {
+        buffer[i] = nextChar(ALPHABET);
+      }
     }
-    return usernames;
   }
 
   public static void main(String[] args) {
@@ -0,0 +1,239 @@
+package cn.mrzhqiang.helper;
+
+import android.support.annotation.CheckResult;
+import android.support.annotation.IntRange;
+import android.support.annotation.NonNull;
+import android.support.annotation.WorkerThread;
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.io.Reader;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+
+/**
+ * 布隆过滤器。
+ * <p>
+ * 用来在批量生成用户名或密码时，快速判断新值是否可能与已有账户冲突：
+ * {@link #mightContain(CharSequence)}返回<code>false</code>表示一定不存在，
+ * 返回<code>true</code>表示可能存在，需要跳过或重新生成，这样只有极少数情况才需要查询数据库。
+ * <p>
+ * 所有位都保存在一个<code>long</code>数组中，可以通过内存映射文件快速保存和加载。
+ * 写入不是线程安全的，加载完成后多个线程只读查询是安全的。
+ *
+ * @author mrzhqiang
+ */
+public final class BloomFilter {
+
+  /** 文件头的魔数："BLMF" */
+  private static final int MAGIC = 0x424C4D46;
+  /** 文件头的长度：魔数、哈希函数数量、数组长度、已写入的元素数量 */
+  private static final int HEADER_SIZE = 4 + 4 + 4 + 8;
+  /** 数组的最大长度，每个元素64位 */
+  private static final int MAX_WORDS = Integer.MAX_VALUE / 8 - HEADER_SIZE;
+
+  private final long[] words;
+  private final long bitSize;
+  private final int hashCount;
+  /** 已经写入的元素数量，会随过滤器一起保存，只用来估算误判率 */
+  private long insertions;
+
+  /**
+   * 创建一个空的布隆过滤器。
+   *
+   * @param expectedInsertions 预计写入的元素数量
+   * @param falsePositiveRate 期望的误判率，取值范围(0, 1)，比如0.01
+   */
+  public BloomFilter(@IntRange(from = 1) long expectedInsertions, double falsePositiveRate) {
+    if (expectedInsertions < 1) {
+      throw new IllegalArgumentException("Expected insertions illegal argument.");
+    }
+    if (!(falsePositiveRate > 0 && falsePositiveRate < 1)) {
+      throw new IllegalArgumentException("False positive rate illegal argument.");
+    }
+    // m = -n * ln(p) / (ln2)^2，k = m / n * ln2
+    double bits = -expectedInsertions * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2));
+    long wordCount = Math.max(1, (long) Math.ceil(bits / 64));
+    if (wordCount > MAX_WORDS) {
+      throw new IllegalArgumentException("Expected insertions is too large.");
+    }
+    this.words = new long[(int) wordCount];
+    this.bitSize = wordCount * 64;
+    this.hashCount =
+        Math.max(1, (int) Math.round((double) bitSize / expectedInsertions * Math.log(2)));
+  }
+
+  private BloomFilter(long[] words, int hashCount, long insertions) {
+    this.words = words;
+    this.bitSize = (long) words.length * 64;
+    this.hashCount = hashCount;
+    this.insertions = insertions;
+  }
+
+  /** 写入一个元素。 */
+  public void put(@NonNull CharSequence value) {
+    put(hash(value, 0, value.length()));
+  }
+
+  /** 写入缓冲区中指定区间的字符，与{@link #put(CharSequence)}写入相同内容的字符串等价。 */
+  public void put(@NonNull char[] buffer, @IntRange(from = 0) int offset,
+      @IntRange(from = 0) int length) {
+    put(hash(buffer, offset, length));
+  }
+
+  /** 判断元素是否可能存在，返回<code>false</code>表示一定不存在。 */
+  @CheckResult public boolean mightContain(@NonNull CharSequence value) {
+    return mightContain(hash(value, 0, value.length()));
+  }
+
+  /** 判断缓冲区中指定区间的字符是否可能存在，返回<code>false</code>表示一定不存在。 */
+  @CheckResult public boolean mightContain(@NonNull char[] buffer, @IntRange(from = 0) int offset,
+      @IntRange(from = 0) int length) {
+    return mightContain(hash(buffer, offset, length));
+  }
+
+  /** 按已经写入的元素数量估算误判率，从文件加载的过滤器包括保存前写入的元素。 */
+  @CheckResult public double expectedFalsePositiveRate() {
+    return Math.pow(1 - Math.exp(-hashCount * (double) insertions / bitSize), hashCount);
+  }
+
+  /** 占用的位数。 */
+  @CheckResult public long bitSize() {
+    return bitSize;
+  }
+
+  /** 哈希函数的数量。 */
+  @CheckResult public int hashCount() {
+    return hashCount;
+  }
+
+  /**
+   * 逐行读取已有的名字并写入过滤器，空行将被忽略。
+   *
+   * @param reader 输入流，比如导出的用户名列表，不会被关闭
+   * @return 写入的元素数量
+   * @throws IOException 读取失败
+   */
+  @WorkerThread public long load(@NonNull Reader reader) throws IOException {
+    BufferedReader bufferedReader =
+        reader instanceof BufferedReader ? (BufferedReader) reader : new BufferedReader(reader);
+    long count = 0;
+    String line;
+    while ((line = bufferedReader.readLine()) != null) {
+      if (!line.isEmpty()) {
+        put(line);
+        count++;
+      }
+    }
+    return count;
+  }
+
+  /**
+   * 通过内存映射文件保存过滤器，已存在的文件将被覆盖。
+   *
+   * @param file 目标文件
+   * @throws IOException 写入失败
+   */
+  @WorkerThread public void writeTo(@NonNull File file) throws IOException {
+    long size = HEADER_SIZE + (long) words.length * 8;
+    RandomAccessFile randomAccessFile = new RandomAccessFile(file, "rw");
+    try {
+      randomAccessFile.setLength(size);
+      FileChannel channel = randomAccessFile.getChannel();
+      MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+      buffer.putInt(MAGIC).putInt(hashCount).putInt(words.length).putLong(insertions);
+      buffer.asLongBuffer().put(words);
+      buffer.force();
+    } finally {
+      randomAccessFile.close();
+    }
+  }
+
+  /**
+   * 通过内存映射文件加载过滤器。
+   *
+   * @param file 由{@link #writeTo(File)}保存的文件
+   * @return 布隆过滤器
+   * @throws IOException 读取失败，或文件格式不正确
+   */
+  @WorkerThread @CheckResult public static BloomFilter readFrom(@NonNull File file)
+      throws IOException {
+    RandomAccessFile randomAccessFile = new RandomAccessFile(file, "r");
+    try {
+      FileChannel channel = randomAccessFile.getChannel();
+      long size = channel.size();
+      if (size < HEADER_SIZE) {
+        throw new IOException("Bloom filter file is too small.");
+      }
+      MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+      int magic = buffer.getInt();
+      int hashCount = buffer.getInt();
+      int wordCount = buffer.getInt();
+      long insertions = buffer.getLong();
+      if (magic != MAGIC || hashCount < 1 || wordCount < 1 || insertions < 0
+          || size != HEADER_SIZE + (long) wordCount * 8) {
+        throw new IOException("Illegal bloom filter file: " + file);
+      }
+      long[] words = new long[wordCount];
+      buffer.asLongBuffer().get(words);
+      return new BloomFilter(words, hashCount, insertions);
+    } finally {
+      randomAccessFile.close();
+    }
+  }
+
+  private void put(long hash) {
+    // Kirsch-Mitzenmacher：用两个哈希值组合出 k 个哈希函数
+    long h1 = hash;
+    long h2 = mix(hash);
+    for (int i = 0; i < hashCount; i++) {
+      long bit = ((h1 + i * h2) & Long.MAX_VALUE) % bitSize;
+      words[(int) (bit >>> 6)] |= 1L << bit;
+    }
+    insertions++;
+  }
+
+  private boolean mightContain(long hash) {
+    long h1 = hash;
+    long h2 = mix(hash);
+    for (int i = 0; i < hashCount; i++) {
+      long bit = ((h1 + i * h2) & Long.MAX_VALUE) % bitSize;
+      if ((words[(int) (bit >>> 6)] & (1L << bit)) == 0) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /** FNV-1a 64位哈希，再经过一次混淆。 */
+  private static long hash(CharSequence value, int offset, int length) {
+    long hash = 0xcbf29ce484222325L;
+    for (int i = offset, end = offset + length; i < end; i++) {
+      hash = (hash ^ value.charAt(i)) * 0x100000001b3L;
+    }
+    return mix(hash);
+  }
+
+  /** 与{@link #hash(CharSequence, int, int)}的结果相同，避免为缓冲区创建字符串。 */
+  private static long hash(char[] value, int offset, int length) {
+    if (offset < 0 || length < 0 || offset > value.length - length) {
+      throw new IllegalArgumentException("Offset or length illegal argument.");
+    }
+    long hash = 0xcbf29ce484222325L;
+    for (int i = offset, end = offset + length; i < end; i++) {
+      hash = (hash ^ value[i]) * 0x100000001b3L;
+    }
+    return mix(hash);
+  }
+
+  /** MurmurHash3 的 fmix64。 */
+  private static long mix(long hash) {
+    hash ^= hash >>> 33;
+    hash *= 0xff51afd7ed558ccdL;
+    hash ^= hash >>> 33;
+    hash *= 0xc4ceb9fe1a85ec53L;
+    hash ^= hash >>> 33;
+    return hash;
+  }
+}
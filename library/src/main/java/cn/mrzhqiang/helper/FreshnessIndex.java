@@ -0,0 +1,303 @@
+package cn.mrzhqiang.helper;
+
+import android.support.annotation.CheckResult;
+import android.support.annotation.IntRange;
+import android.support.annotation.Nullable;
+import java.util.Arrays;
+import java.util.Date;
+
+/**
+ * HTTP 缓存新鲜度索引。
+ * <p>
+ * 缓存条目存入时只解析一次{@code Date}、{@code Expires}、{@code Last-Modified}等响应头，
+ * 按 RFC 7234 计算出过期时刻并保存，之后判断是否新鲜只需要一次比较。
+ * 所有条目按过期时刻组成最小堆，清理时只会访问已经过期的条目，不需要遍历整个缓存。
+ * <p>
+ * 条目由{@link #add(long)}返回的整数编号标识，编号在条目移除后会被复用，
+ * 调用者自己维护编号与缓存的对应关系。
+ * 这个类不是线程安全的。
+ *
+ * @author mrzhqiang
+ */
+public final class FreshnessIndex {
+
+  /** 表示没有对应的响应头。 */
+  public static final long ABSENT = Long.MIN_VALUE + 1;
+  /**
+   * 表示响应头存在但无法解析，与{@link HttpDate#UNPARSEABLE}相同，解析结果可以直接传入。
+   * <p>
+   * 无法解析的{@code Expires}（比如{@code Expires: 0}）表示已经过期；
+   * 无法解析的{@code Date}和{@code Last-Modified}与没有对应的响应头相同。
+   */
+  public static final long INVALID = HttpDate.UNPARSEABLE;
+  /** {@code Age}和{@code max-age}的上限，更大的值按这个值计算（RFC 7234 第1.2.1节）。 */
+  private static final long MAX_DELTA_SECONDS = 1L << 31;
+
+  /** 最小堆，保存条目编号，按过期时刻排序 */
+  private int[] heap;
+  /** 条目编号对应的堆下标，-1表示编号未使用 */
+  private int[] positions;
+  /** 条目编号对应的过期时刻 */
+  private long[] expiresAt;
+  /** 可以复用的条目编号 */
+  private int[] freeSlots;
+  private int freeCount;
+  /** 已经分配过的最大编号 + 1 */
+  private int slotCount;
+  private int size;
+
+  public FreshnessIndex(@IntRange(from = 1) int initialCapacity) {
+    if (initialCapacity < 1) {
+      throw new IllegalArgumentException("Initial capacity illegal argument.");
+    }
+    heap = new int[initialCapacity];
+    positions = new int[initialCapacity];
+    expiresAt = new long[initialCapacity];
+    freeSlots = new int[initialCapacity];
+  }
+
+  /**
+   * 计算响应的过期时刻，当前时间早于这个时刻时，响应是新鲜的。
+   * <p>
+   * 新鲜度寿命依次取自{@code max-age}、{@code Expires}减去{@code Date}，
+   * 以及启发式的({@code Date} - {@code Last-Modified}) / 10，都没有时为0；
+   * 存在{@code Expires}但无法解析时寿命为0，不会再使用启发式寿命（RFC 7234 第5.3节）；
+   * 响应的初始年龄包括{@code Age}、{@code Date}推算的年龄以及请求耗时，计算方式与 okhttp 一致。
+   *
+   * @param sentRequestMillis 发出请求的时刻
+   * @param receivedResponseMillis 收到响应的时刻
+   * @param dateMillis {@code Date}，没有时传入{@link #ABSENT}，无法解析时传入{@link #INVALID}
+   * @param expiresMillis {@code Expires}，没有时传入{@link #ABSENT}，无法解析时传入{@link #INVALID}
+   * @param lastModifiedMillis {@code Last-Modified}，没有时传入{@link #ABSENT}，
+   * 无法解析时传入{@link #INVALID}
+   * @param ageSeconds {@code Age}，没有时传入{@link #ABSENT}，超过2^31时按2^31计算
+   * @param maxAgeSeconds {@code Cache-Control: max-age}，没有时传入{@link #ABSENT}，
+   * 超过2^31时按2^31计算
+   * @return 过期时刻，单位是毫秒
+   * @throws IllegalArgumentException {@code Age}或{@code max-age}为负数
+   */
+  @CheckResult public static long expiresAt(long sentRequestMillis, long receivedResponseMillis,
+      long dateMillis, long expiresMillis, long lastModifiedMillis, long ageSeconds,
+      long maxAgeSeconds) {
+    ageSeconds = deltaSeconds(ageSeconds, "Age");
+    maxAgeSeconds = deltaSeconds(maxAgeSeconds, "Max age");
+    if (dateMillis == INVALID) {
+      dateMillis = ABSENT;
+    }
+    if (lastModifiedMillis == INVALID) {
+      lastModifiedMillis = ABSENT;
+    }
+    long lifetime = 0;
+    if (maxAgeSeconds != ABSENT) {
+      lifetime = maxAgeSeconds * 1000;
+    } else if (expiresMillis == INVALID) {
+      // 无法解析的 Expires 表示已经过期
+      lifetime = 0;
+    } else if (expiresMillis != ABSENT) {
+      long servedMillis = dateMillis != ABSENT ? dateMillis : receivedResponseMillis;
+      lifetime = Math.max(0, expiresMillis - servedMillis);
+    } else if (lastModifiedMillis != ABSENT) {
+      // 启发式寿命：距离上次修改时间的10%
+      long servedMillis = dateMillis != ABSENT ? dateMillis : sentRequestMillis;
+      long delta = servedMillis - lastModifiedMillis;
+      lifetime = delta > 0 ? delta / 10 : 0;
+    }
+
+    long apparentReceivedAge =
+        dateMillis != ABSENT ? Math.max(0, receivedResponseMillis - dateMillis) : 0;
+    long receivedAge = ageSeconds != ABSENT
+        ? Math.max(apparentReceivedAge, ageSeconds * 1000)
+        : apparentReceivedAge;
+    long responseDuration = receivedResponseMillis - sentRequestMillis;
+    long initialAge = receivedAge + responseDuration;
+    // 当前年龄 = 初始年龄 + (现在 - 收到响应的时刻)，小于寿命时新鲜
+    return receivedResponseMillis + lifetime - initialAge;
+  }
+
+  /**
+   * 解析响应头，计算过期时刻并加入索引，参数的顺序与
+   * {@link #expiresAt(long, long, long, long, long, long, long)}相同。
+   *
+   * @param sentRequestMillis 发出请求的时刻
+   * @param receivedResponseMillis 收到响应的时刻
+   * @param date {@code Date}响应头
+   * @param expires {@code Expires}响应头
+   * @param lastModified {@code Last-Modified}响应头
+   * @param ageSeconds {@code Age}，没有时传入{@link #ABSENT}
+   * @param maxAgeSeconds {@code Cache-Control: max-age}，没有时传入{@link #ABSENT}
+   * @return 条目编号
+   */
+  public int add(long sentRequestMillis, long receivedResponseMillis, @Nullable String date,
+      @Nullable String expires, @Nullable String lastModified, long ageSeconds,
+      long maxAgeSeconds) {
+    return add(expiresAt(sentRequestMillis, receivedResponseMillis, millisOf(date),
+        millisOf(expires), millisOf(lastModified), ageSeconds, maxAgeSeconds));
+  }
+
+  /**
+   * 将过期时刻加入索引。
+   *
+   * @param expiresAtMillis 过期时刻，
+   * 通常由{@link #expiresAt(long, long, long, long, long, long, long)}计算
+   * @return 条目编号
+   */
+  public int add(long expiresAtMillis) {
+    int slot;
+    if (freeCount > 0) {
+      slot = freeSlots[--freeCount];
+    } else {
+      if (slotCount == positions.length) {
+        grow();
+      }
+      slot = slotCount++;
+    }
+    expiresAt[slot] = expiresAtMillis;
+    heap[size] = slot;
+    positions[slot] = size;
+    siftUp(size++);
+    return slot;
+  }
+
+  /** 判断条目在指定时刻是否新鲜。 */
+  @CheckResult public boolean isFresh(int slot, long nowMillis) {
+    return nowMillis < expiresAt(slot);
+  }
+
+  /** 取得条目的过期时刻。 */
+  @CheckResult public long expiresAt(int slot) {
+    checkSlot(slot);
+    return expiresAt[slot];
+  }
+
+  /** 更新条目的过期时刻，比如重新验证之后。 */
+  public void update(int slot, long expiresAtMillis) {
+    checkSlot(slot);
+    long old = expiresAt[slot];
+    expiresAt[slot] = expiresAtMillis;
+    if (expiresAtMillis < old) {
+      siftUp(positions[slot]);
+    } else {
+      siftDown(positions[slot]);
+    }
+  }
+
+  /** 移除条目，编号之后可能被复用。 */
+  public void remove(int slot) {
+    checkSlot(slot);
+    removeAt(positions[slot]);
+  }
+
+  /**
+   * 移除并返回一个在指定时刻已经过期的条目。
+   * <p>
+   * 循环调用直到返回-1，即可清理所有过期条目，每次调用的时间复杂度为 O(log n)。
+   *
+   * @param nowMillis 当前时刻
+   * @return 过期条目的编号，没有过期条目时返回-1
+   */
+  public int pollExpired(long nowMillis) {
+    if (size == 0 || nowMillis < expiresAt[heap[0]]) {
+      return -1;
+    }
+    int slot = heap[0];
+    removeAt(0);
+    return slot;
+  }
+
+  /** 最早的过期时刻，可以用来安排下一次清理；索引为空时返回{@link Long#MAX_VALUE}。 */
+  @CheckResult public long nextExpiresAt() {
+    return size == 0 ? Long.MAX_VALUE : expiresAt[heap[0]];
+  }
+
+  /** 索引中的条目数量。 */
+  @CheckResult public int size() {
+    return size;
+  }
+
+  private void removeAt(int index) {
+    int slot = heap[index];
+    positions[slot] = -1;
+    freeSlots[freeCount++] = slot;
+    int last = heap[--size];
+    if (index == size) {
+      return;
+    }
+    heap[index] = last;
+    positions[last] = index;
+    siftDown(index);
+    siftUp(positions[last]);
+  }
+
+  private void siftUp(int index) {
+    int slot = heap[index];
+    long value = expiresAt[slot];
+    while (index > 0) {
+      int parent = (index - 1) >>> 1;
+      int parentSlot = heap[parent];
+      if (expiresAt[parentSlot] <= value) {
+        break;
+      }
+      heap[index] = parentSlot;
+      positions[parentSlot] = index;
+      index = parent;
+    }
+    heap[index] = slot;
+    positions[slot] = index;
+  }
+
+  private void siftDown(int index) {
+    int slot = heap[index];
+    long value = expiresAt[slot];
+    int half = size >>> 1;
+    while (index < half) {
+      int child = 2 * index + 1;
+      int right = child + 1;
+      if (right < size && expiresAt[heap[right]] < expiresAt[heap[child]]) {
+        child = right;
+      }
+      int childSlot = heap[child];
+      if (value <= expiresAt[childSlot]) {
+        break;
+      }
+      heap[index] = childSlot;
+      positions[childSlot] = index;
+      index = child;
+    }
+    heap[index] = slot;
+    positions[slot] = index;
+  }
+
+  private void grow() {
+    int capacity = positions.length * 2;
+    heap = Arrays.copyOf(heap, capacity);
+    positions = Arrays.copyOf(positions, capacity);
+    expiresAt = Arrays.copyOf(expiresAt, capacity);
+    freeSlots = Arrays.copyOf(freeSlots, capacity);
+  }
+
+  private void checkSlot(int slot) {
+    if (slot < 0 || slot >= slotCount || positions[slot] < 0) {
+      throw new IllegalArgumentException("Slot " + slot + " is not in the index.");
+    }
+  }
+
+  /** 检查并截断{@code Age}或{@code max-age}，没有时原样返回{@link #ABSENT}。 */
+  private static long deltaSeconds(long seconds, String name) {
+    if (seconds == ABSENT) {
+      return ABSENT;
+    }
+    if (seconds < 0) {
+      throw new IllegalArgumentException(name + " seconds illegal argument.");
+    }
+    return Math.min(seconds, MAX_DELTA_SECONDS);
+  }
+
+  /** 解析响应头，没有时返回{@link #ABSENT}，无法解析时返回{@link #INVALID}。 */
+  private static long millisOf(@Nullable String header) {
+    if (header == null) {
+      return ABSENT;
+    }
+    Date date = HttpDate.parse(header);
+    return date != null ? date.getTime() : INVALID;
+  }
+}
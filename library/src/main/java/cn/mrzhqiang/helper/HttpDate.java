@@ -1,11 +1,13 @@
 package cn.mrzhqiang.helper;
 
+import java.nio.ByteBuffer;
 import java.text.DateFormat;
 import java.text.ParsePosition;
 import java.text.SimpleDateFormat;
 import java.util.Date;
 import java.util.Locale;
 import java.util.TimeZone;
+import java.util.concurrent.Executor;
 
 /**
  * Best-effort parser for HTTP dates.
@@ -18,6 +20,9 @@ public final class HttpDate {
    */
   public static final long MAX_DATE = 253402300799999L;
 
+  /** Returned by {@link #parseMillis} when the value couldn't be parsed. */
+  public static final long UNPARSEABLE = Long.MIN_VALUE;
+
   /** GMT and UTC are equivalent for our purposes. */
   public static final TimeZone UTC = TimeZone.getTimeZone("GMT");
 
@@ -65,6 +70,28 @@ public final class HttpDate {
   private static final DateFormat[] BROWSER_COMPATIBLE_DATE_FORMATS =
       new DateFormat[BROWSER_COMPATIBLE_DATE_FORMAT_STRINGS.length];
 
+  /** Canonical names in the order of {@link java.util.Calendar} fields, three bytes each. */
+  private static final byte[] WEEKDAYS = ascii("SunMonTueWedThuFriSat");
+  private static final byte[] MONTHS = ascii("JanFebMarAprMayJunJulAugSepOctNovDec");
+
+  /** Length of "Sun, 06 Nov 1994 08:49:37 GMT". */
+  private static final int IMF_FIXDATE_LENGTH = 29;
+  /** Length of "Sun Nov  6 08:49:37 1994". */
+  private static final int ASCTIME_LENGTH = 24;
+  /**
+   * The first year of the Gregorian calendar. {@link java.util.GregorianCalendar} switches to the
+   * Julian calendar before it, so earlier dates are left to the slow path.
+   */
+  private static final int FIRST_GREGORIAN_YEAR = 1583;
+  /** Header values longer than this are copied out of direct buffers via the slow path. */
+  private static final int SCRATCH_SIZE = 64;
+
+  private static final ThreadLocal<byte[]> SCRATCH = new ThreadLocal<byte[]>() {
+    @Override protected byte[] initialValue() {
+      return new byte[SCRATCH_SIZE];
+    }
+  };
+
   /**
    * Returns the date for {@code value}. Returns null if the value couldn't be parsed.
    */
@@ -82,14 +109,7 @@ public final class HttpDate {
     }
     synchronized (BROWSER_COMPATIBLE_DATE_FORMAT_STRINGS) {
       for (int i = 0, count = BROWSER_COMPATIBLE_DATE_FORMAT_STRINGS.length; i < count; i++) {
-        DateFormat format = BROWSER_COMPATIBLE_DATE_FORMATS[i];
-        if (format == null) {
-          format = new SimpleDateFormat(BROWSER_COMPATIBLE_DATE_FORMAT_STRINGS[i], Locale.US);
-          // Set the timezone to use when interpreting formats that don't have a timezone. GMT is
-          // specified by RFC 2616.
-          format.setTimeZone(UTC);
-          BROWSER_COMPATIBLE_DATE_FORMATS[i] = format;
-        }
+        DateFormat format = browserCompatibleFormat(i);
         position.setIndex(0);
         result = format.parse(value, position);
         if (position.getIndex() != 0) {
@@ -105,6 +125,160 @@ public final class HttpDate {
     return null;
   }
 
+  /**
+   * Returns the date for the ASCII bytes between the buffer's position and limit, in milliseconds
+   * since the epoch, or {@link #UNPARSEABLE}. The buffer's position is not changed.
+   */
+  public static long parseMillis(ByteBuffer buffer) {
+    int length = buffer.remaining();
+    if (buffer.hasArray()) {
+      return parseMillis(buffer.array(), buffer.arrayOffset() + buffer.position(), length);
+    }
+    byte[] bytes = length <= SCRATCH_SIZE ? SCRATCH.get() : new byte[length];
+    for (int i = 0, position = buffer.position(); i < length; i++) {
+      bytes[i] = buffer.get(position + i);
+    }
+    return parseMillis(bytes, 0, length);
+  }
+
+  /**
+   * Returns the date for the ASCII bytes {@code bytes[offset..offset+length)}, in milliseconds
+   * since the epoch, or {@link #UNPARSEABLE}. The result always equals what {@link #parse(String)}
+   * returns for the same characters.
+   *
+   * <p>RFC 1123 dates in the blessed "GMT" form and asctime() dates are parsed in place without
+   * allocating. Other formats, out of range fields and two-digit years, which depend on the
+   * formatter's rolling century, fall back to {@link #parse(String)}.
+   */
+  public static long parseMillis(byte[] bytes, int offset, int length) {
+    if (offset < 0 || length < 0 || offset > bytes.length - length) {
+      throw new IllegalArgumentException("Offset or length illegal argument.");
+    }
+    long result = UNPARSEABLE;
+    if (length == IMF_FIXDATE_LENGTH) {
+      result = parseImfFixdate(bytes, offset);
+    } else if (length == ASCTIME_LENGTH) {
+      result = parseAsctime(bytes, offset);
+    }
+    if (result != UNPARSEABLE || length == 0) {
+      return result;
+    }
+    char[] chars = new char[length];
+    for (int i = 0; i < length; i++) {
+      chars[i] = (char) (bytes[offset + i] & 0xff);
+    }
+    Date date = parse(new String(chars));
+    return date != null ? date.getTime() : UNPARSEABLE;
+  }
+
+  /** Parses "Sun, 06 Nov 1994 08:49:37 GMT". */
+  private static long parseImfFixdate(byte[] bytes, int offset) {
+    if (indexOf(WEEKDAYS, bytes, offset) < 0
+        || bytes[offset + 3] != ','
+        || bytes[offset + 4] != ' '
+        || bytes[offset + 7] != ' '
+        || bytes[offset + 11] != ' '
+        || bytes[offset + 16] != ' '
+        || bytes[offset + 25] != ' '
+        || bytes[offset + 26] != 'G'
+        || bytes[offset + 27] != 'M'
+        || bytes[offset + 28] != 'T') {
+      return UNPARSEABLE;
+    }
+    return toMillis(digits(bytes, offset + 12, 4), indexOf(MONTHS, bytes, offset + 8),
+        digits(bytes, offset + 5, 2), bytes, offset + 17);
+  }
+
+  /** Parses "Sun Nov  6 08:49:37 1994". */
+  private static long parseAsctime(byte[] bytes, int offset) {
+    if (indexOf(WEEKDAYS, bytes, offset) < 0
+        || bytes[offset + 3] != ' '
+        || bytes[offset + 7] != ' '
+        || bytes[offset + 10] != ' '
+        || bytes[offset + 19] != ' ') {
+      return UNPARSEABLE;
+    }
+    // The day of month is padded with a space.
+    int day = bytes[offset + 8] == ' '
+        ? digits(bytes, offset + 9, 1)
+        : digits(bytes, offset + 8, 2);
+    return toMillis(digits(bytes, offset + 20, 4), indexOf(MONTHS, bytes, offset + 4), day, bytes,
+        offset + 11);
+  }
+
+  /**
+   * Returns the milliseconds for the date and the "HH:mm:ss" time at {@code timeOffset}, or
+   * {@link #UNPARSEABLE} if any field is malformed or out of range. Out of range fields are rolled
+   * over by the lenient formats, so those are left to the slow path.
+   */
+  private static long toMillis(int year, int month, int day, byte[] bytes, int timeOffset) {
+    if (bytes[timeOffset + 2] != ':' || bytes[timeOffset + 5] != ':') {
+      return UNPARSEABLE;
+    }
+    int hour = digits(bytes, timeOffset, 2);
+    int minute = digits(bytes, timeOffset + 3, 2);
+    int second = digits(bytes, timeOffset + 6, 2);
+    if (year < FIRST_GREGORIAN_YEAR || month < 0 || day < 1 || day > daysInMonth(year, month)
+        || hour < 0 || hour > 23 || minute < 0 || minute > 59 || second < 0 || second > 59) {
+      return UNPARSEABLE;
+    }
+    long days = daysFromEpoch(year, month + 1, day);
+    return ((days * 24 + hour) * 60 + minute) * 60000L + second * 1000L;
+  }
+
+  /** Returns the non-negative decimal value of {@code count} digits, or -1. */
+  private static int digits(byte[] bytes, int offset, int count) {
+    int value = 0;
+    for (int i = offset, end = offset + count; i < end; i++) {
+      int digit = bytes[i] - '0';
+      if (digit < 0 || digit > 9) {
+        return -1;
+      }
+      value = value * 10 + digit;
+    }
+    return value;
+  }
+
+  /** Returns the index of the three byte name at {@code offset} in {@code names}, or -1. */
+  private static int indexOf(byte[] names, byte[] bytes, int offset) {
+    for (int i = 0; i < names.length; i += 3) {
+      if (names[i] == bytes[offset]
+          && names[i + 1] == bytes[offset + 1]
+          && names[i + 2] == bytes[offset + 2]) {
+        return i / 3;
+      }
+    }
+    return -1;
+  }
+
+  /** {@code month} is zero based. */
+  private static int daysInMonth(int year, int month) {
+    if (month == 1) {
+      boolean leap = (year % 4 == 0 && year % 100 != 0) || year % 400 == 0;
+      return leap ? 29 : 28;
+    }
+    return month == 3 || month == 5 || month == 8 || month == 10 ? 30 : 31;
+  }
+
+  /** Days since 1970-01-01 in the proleptic Gregorian calendar, {@code month} is one based. */
+  private static long daysFromEpoch(int year, int month, int day) {
+    // Howard Hinnant's days_from_civil: count years from March so February is last.
+    int y = month <= 2 ? year - 1 : year;
+    int era = y / 400;
+    int yearOfEra = y - era * 400;
+    int dayOfYear = (153 * (month > 2 ? month - 3 : month + 9) + 2) / 5 + day - 1;
+    int dayOfEra = yearOfEra * 365 + yearOfEra / 4 - yearOfEra / 100 + dayOfYear;
+    return era * 146097L + dayOfEra - 719468;
+  }
+
+  private static byte[] ascii(String value) {
+    byte[] bytes = new byte[value.length()];
+    for (int i = 0; i < bytes.length; i++) {
+      bytes[i] = (byte) value.charAt(i);
+    }
+    return bytes;
+  }
+
   /**
    * Returns the string for {@code value}.
    */
@@ -112,6 +286,53 @@ public final class HttpDate {
     return STANDARD_DATE_FORMAT.get().format(value);
   }
 
+  /**
+   * Creates the browser compatible formats and loads the locale and time zone data on
+   * {@code executor}, so the first {@link #parse} on the main thread doesn't pay for it. The
+   * standard format is per thread and is still created on first use by each thread. Formats are
+   * built outside the lock and only published under it, so a concurrent {@link #parse} is never
+   * blocked for the whole warm-up.
+   */
+  public static void warmUp(Executor executor) {
+    executor.execute(new Runnable() {
+      @Override public void run() {
+        format(new Date(0));
+        for (int i = 0, count = BROWSER_COMPATIBLE_DATE_FORMAT_STRINGS.length; i < count; i++) {
+          synchronized (BROWSER_COMPATIBLE_DATE_FORMAT_STRINGS) {
+            if (BROWSER_COMPATIBLE_DATE_FORMATS[i] != null) {
+              continue;
+            }
+          }
+          DateFormat format = newBrowserCompatibleFormat(i);
+          synchronized (BROWSER_COMPATIBLE_DATE_FORMAT_STRINGS) {
+            if (BROWSER_COMPATIBLE_DATE_FORMATS[i] == null) {
+              BROWSER_COMPATIBLE_DATE_FORMATS[i] = format;
+            }
+          }
+        }
+      }
+    });
+  }
+
+  /** Returns the browser compatible format at {@code index}. Callers must hold the lock. */
+  private static DateFormat browserCompatibleFormat(int index) {
+    DateFormat format = BROWSER_COMPATIBLE_DATE_FORMATS[index];
+    if (format == null) {
+      format = newBrowserCompatibleFormat(index);
+      BROWSER_COMPATIBLE_DATE_FORMATS[index] = format;
+    }
+    return format;
+  }
+
+  private static DateFormat newBrowserCompatibleFormat(int index) {
+    DateFormat format =
+        new SimpleDateFormat(BROWSER_COMPATIBLE_DATE_FORMAT_STRINGS[index], Locale.US);
+    // Set the timezone to use when interpreting formats that don't have a timezone. GMT is
+    // specified by RFC 2616.
+    format.setTimeZone(UTC);
+    return format;
+  }
+
   private HttpDate() {
   }
 }
@@ -11,8 +11,11 @@ import android.support.annotation.AnyThread;
 import android.support.annotation.CheckResult;
 import android.support.annotation.IntRange;
 import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
 import android.support.annotation.WorkerThread;
+import android.util.SparseArray;
 import java.util.Locale;
+import java.util.concurrent.Executor;
 
 /**
  * 这个类是名字辅助工具。
@@ -32,6 +35,32 @@ public final class NameHelper {
       0xFF009688, 0xFFff5722, 0xFF795548, 0xFF607d8b
   };
 
+  /** 字形图集包含的字符，首字母会先转换为大写再查找。 */
+  private static final String GLYPHS = "ABCDEFGHIJKLMNOPQRSTUVWXYZ0123456789";
+  /** 字形图集每行的字形数量。 */
+  private static final int GLYPH_COLUMNS = 6;
+  /** 使用字形图集的最大头像尺寸，覆盖 xxxhdpi 下48dp的头像，更大的头像仍然直接绘制文字。 */
+  private static final int MAX_GLYPH_SIZE = 192;
+  /**
+   * 所有字形图集的字节数上限。
+   * <p>
+   * 图集占用 36 * 尺寸^2 字节，48px 约81KB，144px 约729KB，192px 约1.27MB，
+   * 上限可以同时容纳 192px 和 144px 两种图集。
+   */
+  private static final int GLYPH_ATLAS_BUDGET = 2 * 1024 * 1024;
+
+  /**
+   * 按头像尺寸保存的字形图集，只有透明度通道，首次使用对应尺寸时创建，之后不会淘汰。
+   * <p>
+   * 每种尺寸都按实际大小绘制字形，合成时不需要缩放，因此不会丢失细笔画，与直接绘制文字的结果一致。
+   * 列表中的头像尺寸通常只有一两种；超出上限的尺寸直接绘制文字，而不是淘汰已有的图集，
+   * 这样多种尺寸交替出现时也不会反复创建图集，最差情况与直接绘制文字相同。
+   * 通过类锁访问。
+   */
+  private static final SparseArray<Bitmap> GLYPH_ATLASES = new SparseArray<>();
+  /** 已经创建的字形图集占用的字节数，通过类锁访问 */
+  private static int glyphAtlasBytes;
+
   /**
    * 通过名字和大小，返回一个圆形头像。
    *
@@ -134,23 +163,146 @@ public final class NameHelper {
     return COLORS[(int) ((name.hashCode() & 0xffffffffL) % COLORS.length)];
   }
 
-  /** 这个方法来自<a "href"=https://github.com/siacs/Conversations>Conversations</a>。 */
-  private static void drawTile(Canvas canvas, String letter, int tileColor, int right, int bottom) {
+  /**
+   * 在后台预先创建指定尺寸的字形图集，避免列表首次滑动时卡顿。
+   * <p>
+   * 这个方法是可选的，不调用的话，字形图集会在第一次生成对应尺寸的头像时创建。
+   * 图集的总大小有上限，应该优先预先创建最常用的尺寸。
+   *
+   * @param size 头像尺寸，与{@link #bitmapOf(String, int)}的参数相同
+   * @param executor 执行任务的线程池，比如{@link android.os.AsyncTask#THREAD_POOL_EXECUTOR}
+   */
+  @AnyThread public static void prepareGlyphAtlas(@IntRange(from = 10) final int size,
+      @NonNull Executor executor) {
+    if (size > MAX_GLYPH_SIZE) {
+      return;
+    }
+    executor.execute(new Runnable() {
+      @Override public void run() {
+        glyphAtlas(size);
+      }
+    });
+  }
+
+  /**
+   * 绘制头像。
+   * <p>
+   * 常见的字母和数字从对应尺寸的字形图集中按前景色着色后直接绘制，不需要每次都排版文字；
+   * 其他字符、非正方形、过大的头像以及图集超出上限的尺寸仍然直接绘制文字。
+   */
+  static void drawTile(Canvas canvas, String letter, int tileColor, int right, int bottom) {
     letter = letter.toUpperCase(Locale.getDefault());
-    Paint tilePaint = new Paint(), textPaint = new Paint();
+    int index = letter.length() == 1 ? GLYPHS.indexOf(letter.charAt(0)) : -1;
+    Bitmap atlas = null;
+    if (index >= 0 && right == bottom && right <= MAX_GLYPH_SIZE) {
+      atlas = glyphAtlas(right);
+    }
+    if (atlas == null) {
+      drawTextTile(canvas, letter, tileColor, right, bottom);
+      return;
+    }
+    Paint tilePaint = new Paint();
+    tilePaint.setColor(tileColor);
+    canvas.drawRect(new Rect(0, 0, right, bottom), tilePaint);
+
+    // 只有透明度通道的位图，会使用画笔的颜色绘制；格子与头像一样大，不需要缩放
+    Paint glyphPaint = new Paint();
+    glyphPaint.setColor(FG_COLOR);
+    int left = index % GLYPH_COLUMNS * right;
+    int top = index / GLYPH_COLUMNS * right;
+    Rect src = new Rect(left, top, left + right, top + bottom);
+    canvas.drawBitmap(atlas, src, new Rect(0, 0, right, bottom), glyphPaint);
+  }
+
+  /** 这个方法来自<a "href"=https://github.com/siacs/Conversations>Conversations</a>。 */
+  static void drawTextTile(Canvas canvas, String letter, int tileColor, int right, int bottom) {
+    Paint tilePaint = new Paint();
     tilePaint.setColor(tileColor);
+    canvas.drawRect(new Rect(0, 0, right, bottom), tilePaint);
+    drawLetter(canvas, letter, FG_COLOR, right, bottom);
+  }
+
+  /** 这个方法来自<a "href"=https://github.com/siacs/Conversations>Conversations</a>。 */
+  private static void drawLetter(Canvas canvas, String letter, int color, int right, int bottom) {
+    Paint textPaint = new Paint();
     textPaint.setFlags(Paint.ANTI_ALIAS_FLAG);
-    textPaint.setColor(FG_COLOR);
+    textPaint.setColor(color);
     textPaint.setTypeface(Typeface.create("sans-serif-light", Typeface.NORMAL));
     textPaint.setTextSize((float) ((right) * 0.8));
     Rect rect = new Rect();
 
-    canvas.drawRect(new Rect(0, 0, right, bottom), tilePaint);
     textPaint.getTextBounds(letter, 0, 1, rect);
     float width = textPaint.measureText(letter);
     canvas.drawText(letter, (right) / 2 - width / 2, (bottom) / 2 + rect.height() / 2, textPaint);
   }
 
+  /**
+   * 取得指定尺寸的字形图集，不存在时创建。
+   * <p>
+   * 图集在锁外创建，两个线程同时创建同一尺寸时只会多绘制一次，不会互相阻塞，
+   * 多余的图集只用于这一次绘制，之后交给垃圾回收处理。
+   *
+   * @return 字形图集，超出上限时返回<code>null</code>
+   */
+  @Nullable private static Bitmap glyphAtlas(int size) {
+    int bytes = glyphAtlasBytes(size);
+    synchronized (NameHelper.class) {
+      Bitmap atlas = GLYPH_ATLASES.get(size);
+      if (atlas != null || glyphAtlasBytes + bytes > GLYPH_ATLAS_BUDGET) {
+        return atlas;
+      }
+    }
+    Bitmap atlas = createGlyphAtlas(size);
+    synchronized (NameHelper.class) {
+      Bitmap existing = GLYPH_ATLASES.get(size);
+      if (existing != null) {
+        return existing;
+      }
+      if (glyphAtlasBytes + bytes <= GLYPH_ATLAS_BUDGET) {
+        GLYPH_ATLASES.put(size, atlas);
+        glyphAtlasBytes += bytes;
+      }
+    }
+    return atlas;
+  }
+
+  /** 是否已经创建了指定尺寸的字形图集，用于测试。 */
+  static synchronized boolean hasGlyphAtlas(int size) {
+    return GLYPH_ATLASES.get(size) != null;
+  }
+
+  /** 丢弃所有字形图集，用于测试。 */
+  static synchronized void clearGlyphAtlases() {
+    GLYPH_ATLASES.clear();
+    glyphAtlasBytes = 0;
+  }
+
+  /** 字形图集占用的字节数，每个像素只有一个字节的透明度。 */
+  private static int glyphAtlasBytes(int size) {
+    return GLYPH_COLUMNS * size * glyphRows() * size;
+  }
+
+  private static int glyphRows() {
+    return (GLYPHS.length() + GLYPH_COLUMNS - 1) / GLYPH_COLUMNS;
+  }
+
+  /** 按头像尺寸逐个绘制字形，布局与直接绘制文字时完全相同，每个字形占一个格子。 */
+  private static Bitmap createGlyphAtlas(int size) {
+    Bitmap atlas =
+        Bitmap.createBitmap(GLYPH_COLUMNS * size, glyphRows() * size, Bitmap.Config.ALPHA_8);
+    Canvas canvas = new Canvas(atlas);
+    for (int i = 0; i < GLYPHS.length(); i++) {
+      int left = i % GLYPH_COLUMNS * size;
+      int top = i / GLYPH_COLUMNS * size;
+      canvas.save();
+      canvas.clipRect(left, top, left + size, top + size);
+      canvas.translate(left, top);
+      drawLetter(canvas, String.valueOf(GLYPHS.charAt(i)), 0xFFFFFFFF, size, size);
+      canvas.restore();
+    }
+    return atlas;
+  }
+
   private NameHelper() {
   }
 }
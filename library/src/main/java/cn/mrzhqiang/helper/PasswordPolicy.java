@@ -0,0 +1,162 @@
+package cn.mrzhqiang.helper;
+
+import android.support.annotation.CheckResult;
+import android.support.annotation.IntRange;
+import android.support.annotation.NonNull;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 密码策略。
+ * <p>
+ * 描述密码的长度、必须包含的字符类型、需要排除的字符以及自定义符号，
+ * 配合{@link AccountHelper#createPassword(PasswordPolicy)}一次生成满足策略的密码。
+ * <p>
+ * 实例是不可变的，通过{@link Builder}创建，创建时会预先计算好字符池，可以在多个线程中共享。
+ *
+ * @author mrzhqiang
+ */
+public final class PasswordPolicy {
+
+  /** 大写字母 */
+  private static final String UPPER_CASE = "ABCDEFGHIJKLMNOPQRSTUVWXYZ";
+  /** 小写字母 */
+  private static final String LOWER_CASE = "abcdefghijklmnopqrstuvwxyz";
+  /** 数字 */
+  private static final String DIGITS = "0123456789";
+  /** 容易混淆的字符：零和大写O，一和小写L、大写I */
+  private static final String AMBIGUOUS = "0O1lI";
+
+  private final int length;
+  /** 所有可用字符 */
+  final char[] pool;
+  /** 必须出现的字符类型，每个类型至少出现一次 */
+  final char[][] required;
+
+  private PasswordPolicy(Builder builder) {
+    this.length = builder.length;
+    String excluded = builder.excluded;
+    char[] upper = filter(UPPER_CASE, excluded);
+    char[] lower = filter(LOWER_CASE, excluded);
+    char[] digits = filter(DIGITS, excluded);
+    // 字母和数字已经属于各自的类型，从符号中移除，保证字符池中每个字符只出现一次
+    char[] symbols = filter(builder.symbols, excluded + UPPER_CASE + LOWER_CASE + DIGITS);
+
+    List<char[]> classes = new ArrayList<>(4);
+    if (builder.requireUpperCase) {
+      classes.add(checkNotEmpty(upper, "Upper case"));
+    }
+    if (builder.requireLowerCase) {
+      classes.add(checkNotEmpty(lower, "Lower case"));
+    }
+    if (builder.requireDigit) {
+      classes.add(checkNotEmpty(digits, "Digit"));
+    }
+    if (builder.requireSymbol) {
+      classes.add(checkNotEmpty(symbols, "Symbol"));
+    }
+    if (classes.size() > length) {
+      throw new IllegalArgumentException("Length is less than required classes.");
+    }
+    this.required = classes.toArray(new char[classes.size()][]);
+
+    this.pool = new char[upper.length + lower.length + digits.length + symbols.length];
+    int position = 0;
+    for (char[] chars : new char[][] { upper, lower, digits, symbols }) {
+      System.arraycopy(chars, 0, pool, position, chars.length);
+      position += chars.length;
+    }
+    checkNotEmpty(pool, "Pool");
+  }
+
+  /** 密码长度。 */
+  @CheckResult public int length() {
+    return length;
+  }
+
+  /** 从字符串中移除需要排除的字符，重复的字符只保留一个。 */
+  private static char[] filter(String chars, String excluded) {
+    StringBuilder builder = new StringBuilder(chars.length());
+    for (int i = 0; i < chars.length(); i++) {
+      char c = chars.charAt(i);
+      if (excluded.indexOf(c) < 0 && builder.indexOf(String.valueOf(c)) < 0) {
+        builder.append(c);
+      }
+    }
+    char[] result = new char[builder.length()];
+    builder.getChars(0, result.length, result, 0);
+    return result;
+  }
+
+  private static char[] checkNotEmpty(char[] chars, String name) {
+    if (chars.length == 0) {
+      throw new IllegalArgumentException(name + " chars is empty.");
+    }
+    return chars;
+  }
+
+  /** 密码策略的构建器，默认生成8位、由大小写字母和数字组成的密码，不要求任何字符类型。 */
+  public static final class Builder {
+    private int length = 8;
+    private boolean requireUpperCase;
+    private boolean requireLowerCase;
+    private boolean requireDigit;
+    private boolean requireSymbol;
+    private String symbols = "";
+    private String excluded = "";
+
+    /** 密码长度，不能少于必须出现的字符类型数量。 */
+    public Builder length(@IntRange(from = 1) int length) {
+      if (length < 1) {
+        throw new IllegalArgumentException("Length illegal argument.");
+      }
+      this.length = length;
+      return this;
+    }
+
+    /** 至少包含一个大写字母。 */
+    public Builder requireUpperCase() {
+      this.requireUpperCase = true;
+      return this;
+    }
+
+    /** 至少包含一个小写字母。 */
+    public Builder requireLowerCase() {
+      this.requireLowerCase = true;
+      return this;
+    }
+
+    /** 至少包含一个数字。 */
+    public Builder requireDigit() {
+      this.requireDigit = true;
+      return this;
+    }
+
+    /** 至少包含一个符号，需要先通过{@link #symbols(String)}指定符号。 */
+    public Builder requireSymbol() {
+      this.requireSymbol = true;
+      return this;
+    }
+
+    /** 自定义符号，比如：{@code "!@#$%"}，这些符号会加入字符池，其中的字母和数字将被忽略。 */
+    public Builder symbols(@NonNull String symbols) {
+      this.symbols = symbols;
+      return this;
+    }
+
+    /** 排除指定的字符，这些字符不会出现在密码中。 */
+    public Builder exclude(@NonNull String chars) {
+      this.excluded += chars;
+      return this;
+    }
+
+    /** 排除容易混淆的字符，比如{@code 0}和{@code O}，{@code 1}、{@code l}和{@code I}。 */
+    public Builder excludeAmbiguous() {
+      return exclude(AMBIGUOUS);
+    }
+
+    @CheckResult public PasswordPolicy build() {
+      return new PasswordPolicy(this);
+    }
+  }
+}
@@ -1,5 +1,6 @@
 package cn.mrzhqiang.helper;
 
+import android.support.annotation.AnyThread;
 import android.support.annotation.CheckResult;
 import android.support.annotation.NonNull;
 import android.support.annotation.Nullable;
@@ -7,6 +8,7 @@ import java.text.SimpleDateFormat;
 import java.util.Calendar;
 import java.util.Date;
 import java.util.Locale;
+import java.util.concurrent.Executor;
 import java.util.concurrent.TimeUnit;
 
 /**
@@ -19,35 +21,95 @@ import java.util.concurrent.TimeUnit;
 public final class TimeHelper {
 
   /** 中文时间，要适配系统区域设置的话，推荐用{@link Date#toLocaleString()} */
-  private static final SimpleDateFormat DATE_FORMAT =
-      new SimpleDateFormat("yyyy年MM月dd日 HH时mm分ss秒 E", Locale.getDefault());
+  private static final int DATE_FORMAT = 0;
   /** 默认：2018-01-15 17:36 */
-  private static final SimpleDateFormat DATE_NORMAL =
-      new SimpleDateFormat("yyyy年MM月dd日 HH:mm", Locale.getDefault());
+  private static final int DATE_NORMAL = 1;
   /** 1970年以前：1969-12 */
-  private static final SimpleDateFormat DATE_NORMAL0 =
-      new SimpleDateFormat("yyyy年MM月", Locale.getDefault());
+  private static final int DATE_NORMAL0 = 2;
   /** 1970年-去年：2016-12-31 */
-  private static final SimpleDateFormat DATE_NORMAL1 =
-      new SimpleDateFormat("yyyy年MM月dd日", Locale.getDefault());
+  private static final int DATE_NORMAL1 = 3;
   /** 同年：01-01 */
-  private static final SimpleDateFormat DATE_THIS_YEAR =
-      new SimpleDateFormat("MM月dd日", Locale.getDefault());
+  private static final int DATE_THIS_YEAR = 4;
   /** 同月：10-01 00:00 */
-  private static final SimpleDateFormat DATE_THIS_MONTH =
-      new SimpleDateFormat("MM月dd日 HH:mm", Locale.getDefault());
+  private static final int DATE_THIS_MONTH = 5;
   /** 同周：12:00 星期二 */
-  private static final SimpleDateFormat DATE_WEEK_DAY =
-      new SimpleDateFormat("HH:mm E", Locale.getDefault());
+  private static final int DATE_WEEK_DAY = 6;
   /** 同日：22:18 */
-  private static final SimpleDateFormat DATE_TODAY =
-      new SimpleDateFormat("HH:mm", Locale.getDefault());
+  private static final int DATE_TODAY = 7;
   /** 使用日期作为目录名 */
-  private static final SimpleDateFormat DATE_YMD =
-      new SimpleDateFormat("yyyyMMdd", Locale.getDefault());
+  private static final int DATE_YMD = 8;
   /** 使用时间作为文件名 */
-  private static final SimpleDateFormat DATE_HMS =
-      new SimpleDateFormat("HHmmssSSS", Locale.getDefault());
+  private static final int DATE_HMS = 9;
+
+  /** 格式化模式，下标与上面的常量对应 */
+  private static final String[] DATE_PATTERNS = {
+      "yyyy年MM月dd日 HH时mm分ss秒 E",
+      "yyyy年MM月dd日 HH:mm",
+      "yyyy年MM月",
+      "yyyy年MM月dd日",
+      "MM月dd日",
+      "MM月dd日 HH:mm",
+      "HH:mm E",
+      "HH:mm",
+      "yyyyMMdd",
+      "HHmmssSSS",
+  };
+
+  /**
+   * 创建{@link SimpleDateFormat}需要加载区域和日历数据，开销较大，所以在首次使用对应模式时才创建。
+   * 访问时需要持有{@link TimeHelper}的类锁。
+   */
+  private static final SimpleDateFormat[] DATE_FORMATS =
+      new SimpleDateFormat[DATE_PATTERNS.length];
+  /** {@link #showTime(Date)}用到的模式，只有这些需要预热 */
+  private static final int[] SHOW_TIME_PATTERNS = {
+      DATE_NORMAL, DATE_NORMAL0, DATE_NORMAL1, DATE_THIS_YEAR, DATE_WEEK_DAY, DATE_TODAY
+  };
+
+  /**
+   * 在后台预先创建{@link #showTime(Date)}用到的格式化实例，避免首次显示时间时阻塞主线程。
+   * <p>
+   * 这个方法是可选的，不调用也不影响其他方法的使用。
+   * 格式化实例在锁外创建，只在发布时短暂持有类锁，
+   * 因此预热期间主线程调用{@link #showTime(Date)}不会被长时间阻塞。
+   *
+   * @param executor 执行预热任务的线程池，比如{@link android.os.AsyncTask#THREAD_POOL_EXECUTOR}
+   */
+  @AnyThread public static void warmUp(@NonNull Executor executor) {
+    executor.execute(new Runnable() {
+      @Override public void run() {
+        for (int pattern : SHOW_TIME_PATTERNS) {
+          synchronized (TimeHelper.class) {
+            if (DATE_FORMATS[pattern] != null) {
+              continue;
+            }
+          }
+          SimpleDateFormat format = newFormat(pattern);
+          synchronized (TimeHelper.class) {
+            if (DATE_FORMATS[pattern] == null) {
+              DATE_FORMATS[pattern] = format;
+            }
+          }
+        }
+        // 顺便加载日历数据
+        Calendar.getInstance();
+      }
+    });
+  }
+
+  /** 取得对应模式的格式化实例，调用者需要持有类锁。 */
+  private static SimpleDateFormat formatOf(int pattern) {
+    SimpleDateFormat format = DATE_FORMATS[pattern];
+    if (format == null) {
+      format = newFormat(pattern);
+      DATE_FORMATS[pattern] = format;
+    }
+    return format;
+  }
+
+  private static SimpleDateFormat newFormat(int pattern) {
+    return new SimpleDateFormat(DATE_PATTERNS[pattern], Locale.getDefault());
+  }
 
   /** 判断是否为今年。 */
   @CheckResult public static boolean thisYear(@NonNull Date date) {
@@ -77,7 +139,7 @@ public final class TimeHelper {
   @CheckResult @NonNull public static synchronized String showTime(@NonNull Date timestamp) {
     // 超出“现在”，或早于1970年（包括），返回：年-月
     if (timestamp.getTime() > System.currentTimeMillis() || timestamp.getTime() <= 0) {
-      return DATE_NORMAL0.format(timestamp);
+      return formatOf(DATE_NORMAL0).format(timestamp);
     }
 
     // 检测时间距离：刚刚、1分钟前、N分钟前（不超过1小时）...
@@ -92,37 +154,37 @@ public final class TimeHelper {
     Calendar now = Calendar.getInstance();
     // 1970年（不包括）至今年——年-月-日
     if (date.get(Calendar.YEAR) != now.get(Calendar.YEAR)) {
-      return DATE_NORMAL1.format(timestamp);
+      return formatOf(DATE_NORMAL1).format(timestamp);
     }
     // 同年昨天（不希望对元旦节的“昨天”进行判定）
     int day = now.get(Calendar.DAY_OF_YEAR) - date.get(Calendar.DAY_OF_YEAR);
     int yesterday = 1;
     if (day == yesterday) {
-      return "昨天 " + DATE_TODAY.format(timestamp);
+      return "昨天 " + formatOf(DATE_TODAY).format(timestamp);
     }
     // 同年前天（同上）
     int yesterdayAndYesterday = 2;
     if (day == yesterdayAndYesterday) {
-      return "前天 " + DATE_TODAY.format(timestamp);
+      return "前天 " + formatOf(DATE_TODAY).format(timestamp);
     }
     // 同年同周——时:分 星期几
     if (date.get(Calendar.WEEK_OF_YEAR) == now.get(Calendar.WEEK_OF_YEAR)) {
-      return DATE_WEEK_DAY.format(timestamp);
+      return formatOf(DATE_WEEK_DAY).format(timestamp);
     }
     // 同年不同月——几月几日
     if (date.get(Calendar.MONTH) != now.get(Calendar.MONTH)) {
-      return DATE_THIS_YEAR.format(timestamp);
+      return formatOf(DATE_THIS_YEAR).format(timestamp);
     }
     // 同月不同日——几月几日
     if (date.get(Calendar.DAY_OF_MONTH) != now.get(Calendar.DAY_OF_MONTH)) {
-      return DATE_THIS_YEAR.format(timestamp);
+      return formatOf(DATE_THIS_YEAR).format(timestamp);
     }
     // 同日不同时——时:分
     if (date.get(Calendar.DAY_OF_YEAR) == now.get(Calendar.DAY_OF_YEAR)) {
-      return DATE_TODAY.format(timestamp);
+      return formatOf(DATE_TODAY).format(timestamp);
     }
     // 其他未考虑周全的情况，弥补一下
-    return DATE_NORMAL.format(timestamp);
+    return formatOf(DATE_NORMAL).format(timestamp);
   }
 
   /** 1分钟=60秒 */
@@ -0,0 +1,224 @@
+package cn.mrzhqiang.helper;
+
+import android.support.annotation.CheckResult;
+import android.support.annotation.IntRange;
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+import android.support.annotation.WorkerThread;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * 惰性的用户名序列。
+ * <p>
+ * 不会预先生成任何用户名，只在访问时按索引计算，因此无论序列有多长，占用的内存都是固定的。
+ * 通过{@link #write(long, char[], int)}可以把用户名直接写入可复用的缓冲区，
+ * 通过{@link #split(int)}可以切分为多个连续的子序列，交给不同的线程并行处理，
+ * 通过{@link #shard(int, int)}可以为多个进程分配互不重叠的区间，
+ * 通过{@link #writeTo(Writer, BloomFilter)}可以跳过与已有账户冲突的用户名。
+ * <p>
+ * 如果指定了固定宽度，所有用户名的长度都相同，数字部分左侧补0，此时用户名的字典序与数字顺序一致。
+ * <p>
+ * 实例是不可变的，可以在多个线程中共享。
+ *
+ * @author mrzhqiang
+ * @see AccountHelper#lazyUsernames(String, int, long, long)
+ * @see AccountHelper#fixedWidthUsernames(String, int, long, long)
+ */
+public final class UsernameSequence implements Iterable<String> {
+
+  /** 已经补足0的前缀 */
+  private final char[] prefix;
+  /** 用户名的固定宽度，0表示不固定 */
+  private final int width;
+  /** 第一个用户名的数字部分 */
+  private final long start;
+  /** 用户名数量 */
+  private final long count;
+
+  UsernameSequence(@NonNull char[] prefix, int width, long start, long count) {
+    if (width > 0 && count > 0 && prefix.length + digits(start + count - 1) > width) {
+      throw new IllegalArgumentException("Width is too small for prefix and index.");
+    }
+    this.prefix = prefix;
+    this.width = width;
+    this.start = start;
+    this.count = count;
+  }
+
+  /** 序列中的用户名数量。 */
+  @CheckResult public long size() {
+    return count;
+  }
+
+  /** 序列中最长的用户名长度，可以用来分配缓冲区。 */
+  @CheckResult public int maxLength() {
+    if (width > 0) {
+      return width;
+    }
+    return prefix.length + digits(count == 0 ? start : start + count - 1);
+  }
+
+  /**
+   * 将指定位置的用户名写入缓冲区，不会创建任何中间对象。
+   *
+   * @param position 用户名在序列中的位置，从0开始
+   * @param buffer 缓冲区，剩余空间不能少于{@link #maxLength()}
+   * @param offset 开始写入的位置
+   * @return 写入的字符数量
+   */
+  public int write(@IntRange(from = 0) long position, @NonNull char[] buffer,
+      @IntRange(from = 0) int offset) {
+    checkPosition(position);
+    long number = start + position;
+    int length = width > 0 ? width : prefix.length + digits(number);
+    if (offset < 0 || offset > buffer.length - length) {
+      throw new IllegalArgumentException("Offset illegal argument.");
+    }
+    System.arraycopy(prefix, 0, buffer, offset, prefix.length);
+    // 从末尾往前逐位写入数字，固定宽度时剩余的位置补0
+    for (int i = offset + length - 1; i >= offset + prefix.length; i--) {
+      buffer[i] = (char) ('0' + number % 10);
+      number /= 10;
+    }
+    return length;
+  }
+
+  /** 取得指定位置的用户名。 */
+  @CheckResult @NonNull public String get(@IntRange(from = 0) long position) {
+    char[] buffer = new char[maxLength()];
+    return new String(buffer, 0, write(position, buffer, 0));
+  }
+
+  /**
+   * 取得连续的子序列。
+   *
+   * @param from 起始位置，包括
+   * @param to 结束位置，不包括
+   * @return 子序列
+   */
+  @CheckResult @NonNull public UsernameSequence subSequence(@IntRange(from = 0) long from,
+      @IntRange(from = 0) long to) {
+    if (from < 0 || from > to || to > count) {
+      throw new IllegalArgumentException("Range illegal argument.");
+    }
+    return new UsernameSequence(prefix, width, start + from, to - from);
+  }
+
+  /**
+   * 将序列切分为若干个连续、互不重叠的子序列，各个子序列的长度最多相差1。
+   *
+   * @param parts 切分的数量
+   * @return 子序列数组，按顺序排列
+   */
+  @CheckResult @NonNull public UsernameSequence[] split(@IntRange(from = 1) int parts) {
+    if (parts < 1) {
+      throw new IllegalArgumentException("Parts illegal argument.");
+    }
+    UsernameSequence[] sequences = new UsernameSequence[parts];
+    for (int i = 0; i < parts; i++) {
+      sequences[i] = shard(i, parts);
+    }
+    return sequences;
+  }
+
+  /**
+   * 取得某个工作者负责的分片。
+   * <p>
+   * 所有工作者的分片连续、互不重叠，合起来正好是整个序列，各个分片的长度最多相差1。
+   * 每个工作者只需要知道自己的编号和工作者总数，不需要相互协调。
+   *
+   * @param workerId 工作者编号，从0开始
+   * @param workerCount 工作者总数
+   * @return 该工作者负责的子序列，可能为空
+   */
+  @CheckResult @NonNull public UsernameSequence shard(@IntRange(from = 0) int workerId,
+      @IntRange(from = 1) int workerCount) {
+    if (workerCount < 1 || workerId < 0 || workerId >= workerCount) {
+      throw new IllegalArgumentException("Worker id or count illegal argument.");
+    }
+    long base = count / workerCount;
+    long remainder = count % workerCount;
+    // 前 remainder 个分片各多分配一个
+    long from = workerId * base + Math.min(workerId, remainder);
+    long to = from + base + (workerId < remainder ? 1 : 0);
+    return subSequence(from, to);
+  }
+
+  /**
+   * 将所有用户名写入输出流，每个用户名占一行，内部只使用一个可复用的缓冲区。
+   *
+   * @param writer 输出流，不会被关闭
+   * @throws IOException 写入失败
+   */
+  @WorkerThread public void writeTo(@NonNull Writer writer) throws IOException {
+    writeTo(writer, null);
+  }
+
+  /**
+   * 将不与已有账户冲突的用户名写入输出流，每个用户名占一行。
+   * <p>
+   * 过滤器判断为可能存在的用户名将被跳过，这些用户名极少，且绝不会漏掉真正冲突的用户名。
+   *
+   * @param writer 输出流，不会被关闭
+   * @param existing 已有用户名的布隆过滤器，传入<code>null</code>表示不跳过任何用户名
+   * @return 实际写入的用户名数量
+   * @throws IOException 写入失败
+   */
+  @WorkerThread public long writeTo(@NonNull Writer writer, @Nullable BloomFilter existing)
+      throws IOException {
+    char[] buffer = new char[maxLength() + 1];
+    long written = 0;
+    for (long i = 0; i < count; i++) {
+      int length = write(i, buffer, 0);
+      if (existing != null && existing.mightContain(buffer, 0, length)) {
+        continue;
+      }
+      buffer[length] = '\n';
+      writer.write(buffer, 0, length + 1);
+      written++;
+    }
+    return written;
+  }
+
+  /** 按顺序迭代用户名，每次调用{@link Iterator#next()}都会创建一个新的字符串。 */
+  @NonNull @Override public Iterator<String> iterator() {
+    return new Iterator<String>() {
+      private final char[] buffer = new char[maxLength()];
+      private long position;
+
+      @Override public boolean hasNext() {
+        return position < count;
+      }
+
+      @Override public String next() {
+        if (position >= count) {
+          throw new NoSuchElementException();
+        }
+        return new String(buffer, 0, write(position++, buffer, 0));
+      }
+
+      @Override public void remove() {
+        throw new UnsupportedOperationException("remove");
+      }
+    };
+  }
+
+  private void checkPosition(long position) {
+    if (position < 0 || position >= count) {
+      throw new IndexOutOfBoundsException("Position: " + position + ", size: " + count);
+    }
+  }
+
+  /** 计算非负整数的十进制位数。 */
+  private static int digits(long number) {
+    int digits = 1;
+    while (number >= 10) {
+      number /= 10;
+      digits++;
+    }
+    return digits;
+  }
+}
@@ -0,0 +1,175 @@
+package cn.mrzhqiang.helper;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests for {@link AccountHelper} password and username generation.
+ */
+public class AccountHelperTest {
+  private static final String CHARS =
+      "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789";
+  /** 每个字符期望出现的次数 */
+  private static final int EXPECTED_PER_CHAR = 20000;
+  /** 自由度为61的卡方分布，超过这个值的概率约为百万分之一 */
+  private static final double CHI_SQUARE_LIMIT = 130;
+
+  @Test
+  public void fillPassword_uniform() throws Exception {
+    char[] buffer = new char[CHARS.length() * EXPECTED_PER_CHAR];
+    AccountHelper.fillPassword(buffer, 0, buffer.length);
+    int[] counts = new int[CHARS.length()];
+    for (char c : buffer) {
+      int index = CHARS.indexOf(c);
+      assertTrue("unexpected " + c, index >= 0);
+      counts[index]++;
+    }
+    double chiSquare = 0;
+    for (int count : counts) {
+      assertTrue(count > 0);
+      double delta = count - EXPECTED_PER_CHAR;
+      chiSquare += delta * delta / EXPECTED_PER_CHAR;
+    }
+    assertTrue("chi-square " + chiSquare + ": " + Arrays.toString(counts),
+        chiSquare < CHI_SQUARE_LIMIT);
+
+    // 直接对62取模时，256 % 62 = 8，前8个字符会多出约25%
+    long head = 0;
+    for (int i = 0; i < 8; i++) {
+      head += counts[i];
+    }
+    double ratio = head / 8.0 / EXPECTED_PER_CHAR;
+    assertTrue("modulo bias " + ratio, ratio > 0.97 && ratio < 1.03);
+  }
+
+  @Test
+  public void fillPassword_onlyWritesRange() throws Exception {
+    char[] buffer = new char[20];
+    Arrays.fill(buffer, '#');
+    AccountHelper.fillPassword(buffer, 5, 10);
+    for (int i = 0; i < buffer.length; i++) {
+      if (i >= 5 && i < 15) {
+        assertTrue(CHARS.indexOf(buffer[i]) >= 0);
+      } else {
+        assertEquals('#', buffer[i]);
+      }
+    }
+    AccountHelper.fillPassword(buffer, 20, 0);
+  }
+
+  @Test
+  public void fillPassword_illegalRange() throws Exception {
+    char[] buffer = new char[10];
+    int[][] ranges = { { -1, 5 }, { 0, -1 }, { 6, 5 }, { 11, 0 }, { 1, Integer.MAX_VALUE } };
+    for (int[] range : ranges) {
+      try {
+        AccountHelper.fillPassword(buffer, range[0], range[1]);
+        fail("offset " + range[0] + ", length " + range[1]);
+      } catch (IllegalArgumentException expected) {
+      }
+    }
+  }
+
+  @Test
+  public void fillPasswords_fillsEveryBuffer() throws Exception {
+    char[][] buffers = new char[1000][];
+    for (int i = 0; i < buffers.length; i++) {
+      buffers[i] = new char[1 + i % 16];
+    }
+    AccountHelper.fillPasswords(buffers);
+    Set<String> distinct = new HashSet<>();
+    for (int i = 0; i < buffers.length; i++) {
+      assertEquals(1 + i % 16, buffers[i].length);
+      for (char c : buffers[i]) {
+        assertTrue(CHARS.indexOf(c) >= 0);
+      }
+      if (buffers[i].length == 16) {
+        distinct.add(new String(buffers[i]));
+      }
+    }
+    // 62^16 种可能，不应该出现重复
+    assertEquals(buffers.length / 16, distinct.size());
+  }
+
+  @Test
+  public void createPassword_length() throws Exception {
+    for (int length = 1; length <= 64; length++) {
+      assertEquals(length, AccountHelper.createPassword(length).length());
+    }
+  }
+
+  @Test
+  public void createPassword_unique_addsToFilter() throws Exception {
+    PasswordPolicy policy = new PasswordPolicy.Builder().length(12).requireDigit().build();
+    BloomFilter existing = new BloomFilter(10000, 0.001);
+    String taken = AccountHelper.createPassword(policy);
+    existing.put(taken);
+
+    Set<String> passwords = new HashSet<>();
+    for (int i = 0; i < 1000; i++) {
+      String password = AccountHelper.createPassword(policy, existing);
+      assertNotEquals(taken, password);
+      assertTrue(existing.mightContain(password));
+      assertTrue(passwords.add(password));
+    }
+    // 1次手动写入，加上1000个生成的密码
+    BloomFilter expected = new BloomFilter(10000, 0.001);
+    for (int i = 0; i < 1001; i++) {
+      expected.put("x" + i);
+    }
+    assertEquals(expected.expectedFalsePositiveRate(), existing.expectedFalsePositiveRate(), 0);
+  }
+
+  @Test(expected = IllegalStateException.class)
+  public void createPassword_unique_saturatedFilter() throws Exception {
+    // 只有64位，写入足够多的元素后所有位都是1
+    BloomFilter saturated = new BloomFilter(1, 0.5);
+    assertEquals(64, saturated.bitSize());
+    for (int i = 0; i < 10000; i++) {
+      saturated.put("value" + i);
+    }
+    assertTrue(saturated.mightContain("never added"));
+    AccountHelper.createPassword(new PasswordPolicy.Builder().build(), saturated);
+  }
+
+  @Test
+  public void lazyUsernames_matchAutoUsernames() throws Exception {
+    String[] prefixes = { "a", "user", "abcdef", "abcdefgh" };
+    for (String prefix : prefixes) {
+      // minLength 小于、等于、大于前缀长度，以及跨越位数变化的索引
+      for (int minLength = 0; minLength <= 8; minLength++) {
+        for (int startIndex : new int[] { 0, 7, 95, 998 }) {
+          String[] expected = AccountHelper.autoUsernames(prefix, minLength, startIndex, 20);
+          UsernameSequence actual =
+              AccountHelper.lazyUsernames(prefix, minLength, startIndex, 20);
+          assertEquals(expected.length, actual.size());
+          int i = 0;
+          for (String username : actual) {
+            assertEquals(expected[i], username);
+            assertEquals(expected[i], actual.get(i));
+            i++;
+          }
+        }
+      }
+    }
+  }
+
+  @Test
+  public void lazyUsernames_defaultMinLength() throws Exception {
+    String[] expected = AccountHelper.autoUsernames("ab", 10, 5);
+    UsernameSequence actual = AccountHelper.lazyUsernames("ab", 6, 10, 5);
+    for (int i = 0; i < expected.length; i++) {
+      assertEquals(expected[i], actual.get(i));
+    }
+    assertEquals("ab000010", actual.get(0));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void lazyUsernames_rejectsIllegalPrefix() throws Exception {
+    AccountHelper.lazyUsernames("user1", 0, 0, 1);
+  }
+}
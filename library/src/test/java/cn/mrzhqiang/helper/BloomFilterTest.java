@@ -0,0 +1,136 @@
+package cn.mrzhqiang.helper;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.io.StringReader;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests for {@link BloomFilter} loading, persistence and buffer hashing.
+ */
+public class BloomFilterTest {
+  private static final int INSERTIONS = 10000;
+
+  @Test
+  public void writeTo_readFrom_roundTrip() throws Exception {
+    BloomFilter filter = new BloomFilter(INSERTIONS, 0.01);
+    for (int i = 0; i < INSERTIONS; i++) {
+      filter.put("user" + i);
+    }
+
+    File file = File.createTempFile("bloom", ".bin");
+    try {
+      filter.writeTo(file);
+      BloomFilter loaded = BloomFilter.readFrom(file);
+
+      assertEquals(filter.bitSize(), loaded.bitSize());
+      assertEquals(filter.hashCount(), loaded.hashCount());
+      assertEquals(filter.expectedFalsePositiveRate(), loaded.expectedFalsePositiveRate(), 0);
+      assertTrue(loaded.expectedFalsePositiveRate() > 0);
+      for (int i = 0; i < INSERTIONS; i++) {
+        assertTrue(loaded.mightContain("user" + i));
+      }
+      for (int i = 0; i < 1000; i++) {
+        String value = "other" + i;
+        assertEquals(filter.mightContain(value), loaded.mightContain(value));
+      }
+    } finally {
+      file.delete();
+    }
+  }
+
+  @Test(expected = IOException.class)
+  public void readFrom_rejectsNegativeInsertions() throws Exception {
+    File file = File.createTempFile("bloom", ".bin");
+    try {
+      new BloomFilter(100, 0.01).writeTo(file);
+      RandomAccessFile randomAccessFile = new RandomAccessFile(file, "rw");
+      try {
+        // insertions follows magic, hash count and word count
+        randomAccessFile.seek(12);
+        randomAccessFile.writeLong(-1);
+      } finally {
+        randomAccessFile.close();
+      }
+      BloomFilter.readFrom(file);
+    } finally {
+      file.delete();
+    }
+  }
+
+  @Test(expected = IOException.class)
+  public void readFrom_rejectsTruncatedFile() throws Exception {
+    File file = File.createTempFile("bloom", ".bin");
+    try {
+      new BloomFilter(100, 0.01).writeTo(file);
+      RandomAccessFile randomAccessFile = new RandomAccessFile(file, "rw");
+      try {
+        randomAccessFile.setLength(randomAccessFile.length() - 8);
+      } finally {
+        randomAccessFile.close();
+      }
+      BloomFilter.readFrom(file);
+    } finally {
+      file.delete();
+    }
+  }
+
+  @Test
+  public void load_skipsEmptyLines() throws Exception {
+    BloomFilter filter = new BloomFilter(100, 0.01);
+    long count = filter.load(new StringReader("alice\n\nbob\r\ncarol"));
+
+    assertEquals(3, count);
+    assertTrue(filter.mightContain("alice"));
+    assertTrue(filter.mightContain("bob"));
+    assertTrue(filter.mightContain("carol"));
+    assertFalse(filter.mightContain(""));
+
+    BloomFilter expected = new BloomFilter(100, 0.01);
+    expected.put("alice");
+    expected.put("bob");
+    expected.put("carol");
+    assertEquals(expected.expectedFalsePositiveRate(), filter.expectedFalsePositiveRate(), 0);
+  }
+
+  @Test
+  public void charArray_hashesLikeCharSequence() throws Exception {
+    BloomFilter strings = new BloomFilter(INSERTIONS, 0.01);
+    BloomFilter buffers = new BloomFilter(INSERTIONS, 0.01);
+    char[] buffer = new char[32];
+    for (int i = 0; i < INSERTIONS; i++) {
+      String value = "user" + i;
+      // write into the middle of the buffer so offset is exercised
+      value.getChars(0, value.length(), buffer, 3);
+      strings.put(value);
+      buffers.put(buffer, 3, value.length());
+      assertTrue(strings.mightContain(buffer, 3, value.length()));
+      assertTrue(buffers.mightContain(value));
+    }
+
+    File stringsFile = File.createTempFile("bloom", ".bin");
+    File buffersFile = File.createTempFile("bloom", ".bin");
+    try {
+      strings.writeTo(stringsFile);
+      buffers.writeTo(buffersFile);
+      assertArrayEquals(readAll(stringsFile), readAll(buffersFile));
+    } finally {
+      stringsFile.delete();
+      buffersFile.delete();
+    }
+  }
+
+  private static byte[] readAll(File file) throws IOException {
+    RandomAccessFile randomAccessFile = new RandomAccessFile(file, "r");
+    try {
+      byte[] bytes = new byte[(int) randomAccessFile.length()];
+      randomAccessFile.readFully(bytes);
+      return bytes;
+    } finally {
+      randomAccessFile.close();
+    }
+  }
+}
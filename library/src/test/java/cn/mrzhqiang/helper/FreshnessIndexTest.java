@@ -0,0 +1,133 @@
+package cn.mrzhqiang.helper;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * 新鲜度计算与过期索引的测试。
+ */
+public class FreshnessIndexTest {
+  private static final long ABSENT = FreshnessIndex.ABSENT;
+
+  @Test
+  public void expiresAt_maxAge() throws Exception {
+    // 请求耗时1秒，Age 为10秒，max-age 为60秒
+    assertEquals(1000 + 60000 - 10000 - 1000,
+        FreshnessIndex.expiresAt(0, 1000, ABSENT, ABSENT, ABSENT, 10, 60));
+  }
+
+  @Test
+  public void expiresAt_expires() throws Exception {
+    assertEquals(3600000,
+        FreshnessIndex.expiresAt(0, 0, 0, 3600000, 0, ABSENT, ABSENT));
+  }
+
+  @Test
+  public void expiresAt_heuristic() throws Exception {
+    // Date - Last-Modified 为10天，启发式寿命为1天
+    long day = 24 * 3600000L;
+    assertEquals(11 * day,
+        FreshnessIndex.expiresAt(10 * day, 10 * day, 10 * day, ABSENT, 0, ABSENT, ABSENT));
+  }
+
+  @Test
+  public void expiresAt_invalidExpires() throws Exception {
+    // 无法解析的 Expires 表示已经过期，即使有 Last-Modified 也不使用启发式寿命
+    long day = 24 * 3600000L;
+    assertEquals(10 * day, FreshnessIndex.expiresAt(10 * day, 10 * day, 10 * day,
+        FreshnessIndex.INVALID, 0, ABSENT, ABSENT));
+    // 无法解析的 Date 和 Last-Modified 与没有对应的响应头相同
+    assertEquals(3600000, FreshnessIndex.expiresAt(0, 0, FreshnessIndex.INVALID, 3600000,
+        FreshnessIndex.INVALID, ABSENT, ABSENT));
+  }
+
+  @Test
+  public void expiresAt_saturatesDeltaSeconds() throws Exception {
+    long max = (1L << 31) * 1000;
+    assertEquals(max, FreshnessIndex.expiresAt(0, 0, ABSENT, ABSENT, ABSENT, ABSENT,
+        Long.MAX_VALUE / 100));
+    assertEquals(max, FreshnessIndex.expiresAt(0, 0, ABSENT, ABSENT, ABSENT, ABSENT,
+        Long.MAX_VALUE));
+    // Age 也截断到2^31秒，不会溢出
+    assertEquals(-max, FreshnessIndex.expiresAt(0, 0, ABSENT, ABSENT, ABSENT, Long.MAX_VALUE,
+        ABSENT));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void expiresAt_negativeMaxAge() throws Exception {
+    FreshnessIndex.expiresAt(0, 0, ABSENT, ABSENT, ABSENT, ABSENT, -1);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void expiresAt_negativeAge() throws Exception {
+    FreshnessIndex.expiresAt(0, 0, ABSENT, ABSENT, ABSENT, -1, 60);
+  }
+
+  @Test
+  public void add_headers_expiresZero() throws Exception {
+    long day = 24 * 3600000L;
+    FreshnessIndex index = new FreshnessIndex(1);
+    // Date 为第10天，Last-Modified 为第0天，Expires: 0
+    int slot = index.add(10 * day, 10 * day, "Sun, 11 Jan 1970 00:00:00 GMT", "0",
+        "Thu, 01 Jan 1970 00:00:00 GMT", ABSENT, ABSENT);
+    assertFalse(index.isFresh(slot, 10 * day));
+    assertEquals(10 * day, index.expiresAt(slot));
+  }
+
+  @Test
+  public void add_headers() throws Exception {
+    FreshnessIndex index = new FreshnessIndex(1);
+    int slot = index.add(0, 0, "Thu, 01 Jan 1970 00:00:00 GMT", "Thu, 01 Jan 1970 01:00:00 GMT",
+        null, ABSENT, ABSENT);
+    assertTrue(index.isFresh(slot, 3599999));
+    assertFalse(index.isFresh(slot, 3600000));
+  }
+
+  @Test
+  public void add_headers_ageAndMaxAge() throws Exception {
+    FreshnessIndex index = new FreshnessIndex(1);
+    String date = "Thu, 01 Jan 1970 00:00:00 GMT";
+    // max-age 优先于 Expires，寿命为60秒，Age 为10秒，剩余50秒
+    int slot = index.add(0, 0, date, "Thu, 01 Jan 1970 01:00:00 GMT", null, 10, 60);
+    assertEquals(50000, index.expiresAt(slot));
+    assertEquals(
+        FreshnessIndex.expiresAt(0, 0, 0, 3600000, ABSENT, 10, 60), index.expiresAt(slot));
+  }
+
+  @Test
+  public void pollExpired_onlyExpired() throws Exception {
+    Random random = new Random(1);
+    FreshnessIndex index = new FreshnessIndex(4);
+    List<Integer> slots = new ArrayList<>();
+    List<Long> expires = new ArrayList<>();
+    for (int round = 0; round < 2000; round++) {
+      int action = random.nextInt(4);
+      if (action < 2 || slots.isEmpty()) {
+        long expiresAt = random.nextInt(10000);
+        slots.add(index.add(expiresAt));
+        expires.add(expiresAt);
+      } else if (action == 2) {
+        int i = random.nextInt(slots.size());
+        index.remove(slots.remove(i));
+        expires.remove(i);
+      } else {
+        long now = random.nextInt(10000);
+        int slot;
+        while ((slot = index.pollExpired(now)) != -1) {
+          int i = slots.indexOf(slot);
+          assertTrue(expires.get(i) <= now);
+          slots.remove(i);
+          expires.remove(i);
+        }
+        for (long expiresAt : expires) {
+          assertTrue(expiresAt > now);
+        }
+      }
+      assertEquals(slots.size(), index.size());
+    }
+  }
+}
@@ -0,0 +1,116 @@
+package cn.mrzhqiang.helper;
+
+import java.nio.ByteBuffer;
+import java.util.Date;
+import java.util.Random;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * Fuzz tests proving {@link HttpDate#parseMillis} agrees with {@link HttpDate#parse(String)}.
+ */
+public class HttpDateTest {
+  private static final String[] WEEKDAYS = {
+      "Sun", "Mon", "Tue", "Wed", "Thu", "Fri", "Sat", "Sunday", "sun", "SUN", "Xyz"
+  };
+  private static final String[] MONTHS = {
+      "Jan", "Feb", "Mar", "Apr", "May", "Jun", "Jul", "Aug", "Sep", "Oct", "Nov", "Dec", "jan",
+      "DEC", "Foo"
+  };
+  private static final String[] ZONES = { "GMT", "UTC", "PST", "+0100", "gmt" };
+  private static final int ITERATIONS = 20000;
+
+  @Test
+  public void knownDates() throws Exception {
+    assertEquals(784111777000L, parseMillis("Sun, 06 Nov 1994 08:49:37 GMT"));
+    assertEquals(784111777000L, parseMillis("Sun Nov  6 08:49:37 1994"));
+    assertEquals(784111777000L, parseMillis("Sunday, 06-Nov-94 08:49:37 GMT"));
+    assertEquals(0L, parseMillis("Thu, 01 Jan 1970 00:00:00 GMT"));
+    assertEquals(HttpDate.MAX_DATE - 999, parseMillis("Fri, 31 Dec 9999 23:59:59 GMT"));
+    assertEquals(HttpDate.UNPARSEABLE, parseMillis(""));
+    assertEquals(HttpDate.UNPARSEABLE, parseMillis("not a date"));
+  }
+
+  @Test
+  public void fuzz_wellFormed() throws Exception {
+    Random random = new Random(42);
+    for (int i = 0; i < ITERATIONS; i++) {
+      assertSameAsParse(randomDate(random));
+    }
+  }
+
+  @Test
+  public void fuzz_mutated() throws Exception {
+    Random random = new Random(7);
+    String alphabet = "0123456789 ,:-GMTJanSun\t";
+    for (int i = 0; i < ITERATIONS; i++) {
+      char[] chars = randomDate(random).toCharArray();
+      int mutations = 1 + random.nextInt(3);
+      for (int j = 0; j < mutations; j++) {
+        chars[random.nextInt(chars.length)] = alphabet.charAt(random.nextInt(alphabet.length()));
+      }
+      String value = new String(chars);
+      if (random.nextInt(4) == 0) {
+        value = value.substring(0, random.nextInt(value.length() + 1));
+      }
+      assertSameAsParse(value);
+    }
+  }
+
+  @Test
+  public void byteBuffers() throws Exception {
+    String value = "Sun, 06 Nov 1994 08:49:37 GMT";
+    byte[] bytes = ("Date: " + value + "\r\n").getBytes("US-ASCII");
+
+    ByteBuffer heap = ByteBuffer.wrap(bytes);
+    heap.position(6).limit(6 + value.length());
+    assertEquals(784111777000L, HttpDate.parseMillis(heap.slice()));
+    assertEquals(784111777000L, HttpDate.parseMillis(heap));
+    assertEquals(6, heap.position());
+
+    ByteBuffer direct = ByteBuffer.allocateDirect(bytes.length);
+    direct.put(bytes).position(6);
+    direct.limit(6 + value.length());
+    assertEquals(784111777000L, HttpDate.parseMillis(direct));
+    assertEquals(6, direct.position());
+  }
+
+  private static void assertSameAsParse(String value) throws Exception {
+    Date date = HttpDate.parse(value);
+    long expected = date != null ? date.getTime() : HttpDate.UNPARSEABLE;
+    assertEquals(value, expected, parseMillis(value));
+  }
+
+  /** Parses {@code value} from the middle of a larger array. */
+  private static long parseMillis(String value) throws Exception {
+    byte[] bytes = ("xx" + value + "yy").getBytes("ISO-8859-1");
+    return HttpDate.parseMillis(bytes, 2, bytes.length - 4);
+  }
+
+  private static String randomDate(Random random) {
+    String weekday = WEEKDAYS[random.nextInt(WEEKDAYS.length)];
+    String month = MONTHS[random.nextInt(MONTHS.length)];
+    int day = random.nextInt(33);
+    int year = random.nextInt(3) == 0 ? 1500 + random.nextInt(200) : 1900 + random.nextInt(200);
+    String time = pad(random.nextInt(25)) + ":" + pad(random.nextInt(61)) + ":"
+        + pad(random.nextInt(61));
+    switch (random.nextInt(4)) {
+      case 0:
+        return weekday + ", " + pad(day) + " " + month + " " + year + " " + time + " GMT";
+      case 1:
+        return weekday + " " + month + " " + (day < 10 ? " " + day : pad(day)) + " " + time + " "
+            + year;
+      case 2:
+        return weekday + ", " + pad(day) + "-" + month + "-" + pad(year % 100) + " " + time + " "
+            + ZONES[random.nextInt(ZONES.length)];
+      default:
+        return weekday + ", " + pad(day) + " " + month + " " + year + " " + time + " "
+            + ZONES[random.nextInt(ZONES.length)];
+    }
+  }
+
+  private static String pad(int value) {
+    return value < 10 ? "0" + value : String.valueOf(value);
+  }
+}
@@ -0,0 +1,81 @@
+package cn.mrzhqiang.helper;
+
+import java.util.HashSet;
+import java.util.Set;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests for {@link PasswordPolicy} and {@link AccountHelper#createPassword(PasswordPolicy)}.
+ */
+public class PasswordPolicyTest {
+  private static final int ITERATIONS = 2000;
+
+  @Test
+  public void createPassword_meetsRequiredClasses() throws Exception {
+    PasswordPolicy policy = new PasswordPolicy.Builder().length(4)
+        .requireUpperCase()
+        .requireLowerCase()
+        .requireDigit()
+        .requireSymbol()
+        .symbols("!@#")
+        .build();
+    for (int i = 0; i < ITERATIONS; i++) {
+      String password = AccountHelper.createPassword(policy);
+      assertEquals(4, password.length());
+      assertTrue(password, containsAny(password, "ABCDEFGHIJKLMNOPQRSTUVWXYZ"));
+      assertTrue(password, containsAny(password, "abcdefghijklmnopqrstuvwxyz"));
+      assertTrue(password, containsAny(password, "0123456789"));
+      assertTrue(password, containsAny(password, "!@#"));
+    }
+  }
+
+  @Test
+  public void createPassword_honorsExclude() throws Exception {
+    PasswordPolicy policy = new PasswordPolicy.Builder().length(16)
+        .requireDigit()
+        .exclude("abc")
+        .excludeAmbiguous()
+        .build();
+    for (int i = 0; i < ITERATIONS; i++) {
+      String password = AccountHelper.createPassword(policy);
+      assertEquals(16, password.length());
+      assertFalse(password, containsAny(password, "abc0O1lI"));
+      assertTrue(password, containsAny(password, "23456789"));
+    }
+  }
+
+  @Test
+  public void pool_hasNoDuplicates() throws Exception {
+    PasswordPolicy policy = new PasswordPolicy.Builder().symbols("aA1!!").build();
+    Set<Character> seen = new HashSet<>();
+    for (char c : policy.pool) {
+      assertTrue("duplicate " + c, seen.add(c));
+    }
+    assertEquals(26 + 26 + 10 + 1, policy.pool.length);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void requireSymbol_lettersAreNotSymbols() throws Exception {
+    new PasswordPolicy.Builder().requireSymbol().symbols("aA1").build();
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void build_lengthLessThanRequiredClasses() throws Exception {
+    new PasswordPolicy.Builder().length(2)
+        .requireUpperCase()
+        .requireLowerCase()
+        .requireDigit()
+        .build();
+  }
+
+  private static boolean containsAny(String value, String chars) {
+    for (int i = 0; i < value.length(); i++) {
+      if (chars.indexOf(value.charAt(i)) >= 0) {
+        return true;
+      }
+    }
+    return false;
+  }
+}
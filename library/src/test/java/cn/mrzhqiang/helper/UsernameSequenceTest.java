@@ -0,0 +1,128 @@
+package cn.mrzhqiang.helper;
+
+import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests for {@link UsernameSequence} sharding, fixed-width names and filtered output.
+ */
+public class UsernameSequenceTest {
+
+  @Test
+  public void shards_disjointContiguousAndComplete() throws Exception {
+    UsernameSequence sequence = AccountHelper.lazyUsernames("user", 0, 95, 1003);
+    for (int workerCount = 1; workerCount <= 16; workerCount++) {
+      List<String> joined = new ArrayList<>();
+      long min = Long.MAX_VALUE;
+      long max = 0;
+      for (int workerId = 0; workerId < workerCount; workerId++) {
+        UsernameSequence shard = sequence.shard(workerId, workerCount);
+        min = Math.min(min, shard.size());
+        max = Math.max(max, shard.size());
+        for (String username : shard) {
+          joined.add(username);
+        }
+      }
+      // 按编号顺序拼接所有分片，应该正好得到原序列：不重叠、不遗漏、连续
+      assertEquals(sequence.size(), joined.size());
+      for (int i = 0; i < joined.size(); i++) {
+        assertEquals(sequence.get(i), joined.get(i));
+      }
+      assertTrue(max - min <= 1);
+    }
+  }
+
+  @Test
+  public void shards_moreWorkersThanNames() throws Exception {
+    UsernameSequence sequence = AccountHelper.lazyUsernames("user", 0, 0, 3);
+    UsernameSequence[] parts = sequence.split(5);
+    assertEquals(5, parts.length);
+    long total = 0;
+    for (UsernameSequence part : parts) {
+      assertTrue(part.size() <= 1);
+      total += part.size();
+    }
+    assertEquals(3, total);
+  }
+
+  @Test
+  public void fixedWidth_sameWidthAndSortedByIndex() throws Exception {
+    UsernameSequence sequence = AccountHelper.fixedWidthUsernames("user", 10, 0, 12345);
+    String previous = null;
+    for (String username : sequence) {
+      assertEquals(username, 10, username.length());
+      assertTrue(username.startsWith("user"));
+      if (previous != null) {
+        assertTrue(previous + " >= " + username, previous.compareTo(username) < 0);
+      }
+      previous = username;
+    }
+    assertEquals("user000000", sequence.get(0));
+    assertEquals("user012344", sequence.get(12344));
+    assertEquals(10, sequence.maxLength());
+  }
+
+  @Test
+  public void fixedWidth_exactFit() throws Exception {
+    UsernameSequence sequence = AccountHelper.fixedWidthUsernames("ab", 5, 990, 10);
+    assertEquals("ab990", sequence.get(0));
+    assertEquals("ab999", sequence.get(9));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void fixedWidth_tooSmallForPrefixAndIndex() throws Exception {
+    // 最大的编号 1000 需要4位，加上前缀一共6位
+    AccountHelper.fixedWidthUsernames("ab", 5, 990, 11);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void fixedWidth_tooSmallForPrefix() throws Exception {
+    AccountHelper.fixedWidthUsernames("user", 4, 0, 1);
+  }
+
+  @Test
+  public void writeTo_skipsExisting() throws Exception {
+    UsernameSequence sequence = AccountHelper.lazyUsernames("user", 0, 0, 1000);
+    BloomFilter existing = new BloomFilter(1000, 0.000001);
+    for (int i = 100; i < 200; i++) {
+      existing.put("user" + i);
+    }
+    existing.put("user999");
+
+    StringWriter writer = new StringWriter();
+    long written = sequence.writeTo(writer, existing);
+
+    List<String> lines = Arrays.asList(writer.toString().split("\n"));
+    assertEquals(written, lines.size());
+    assertEquals(1000 - 101, written);
+    for (int i = 0; i < 1000; i++) {
+      String username = "user" + i;
+      assertEquals(username, !existing.mightContain(username), lines.contains(username));
+    }
+    // 写入时不会修改过滤器
+    assertFalse(existing.mightContain("user0"));
+  }
+
+  @Test
+  public void writeTo_withoutFilter() throws Exception {
+    UsernameSequence sequence = AccountHelper.lazyUsernames("user", 0, 0, 10);
+    StringWriter writer = new StringWriter();
+    assertEquals(10, sequence.writeTo(writer, null));
+    assertTrue(writer.toString().startsWith("user0\nuser1\n"));
+    assertTrue(writer.toString().endsWith("user9\n"));
+  }
+
+  @Test
+  public void write_matchesGet() throws Exception {
+    UsernameSequence sequence = AccountHelper.lazyUsernames("user", 0, 8, 5);
+    char[] buffer = new char[sequence.maxLength() + 2];
+    int length = sequence.write(3, buffer, 2);
+    assertEquals("user11", new String(buffer, 2, length));
+    assertEquals("user11", sequence.get(3));
+  }
+}